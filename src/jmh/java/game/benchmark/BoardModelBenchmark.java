@@ -0,0 +1,118 @@
+package game.benchmark;
+
+import game.model.BoardModel;
+import game.model.CircleDirection;
+import game.model.CircleType;
+import game.model.Position;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The model operations behind every click and every search node, measured
+ * on the start position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardModelBenchmark {
+
+    private static final CircleDirection[] DIRECTIONS = CircleDirection.values();
+
+    private BoardModel model;
+    private Position[] positions;
+    private Position[] copies;
+    private int movePiece;
+    private CircleDirection moveDirection;
+
+    @Setup
+    public void setUp() {
+        model = new BoardModel();
+        positions = new Position[model.getRows() * model.getCols()];
+        copies = new Position[positions.length];
+        for (int cell = 0; cell < positions.length; cell++) {
+            positions[cell] = model.toPosition(cell);
+            copies[cell] = Position.of(positions[cell].x(), positions[cell].y());
+        }
+        for (int piece = model.getCircleNumber() - 1; piece >= 0; piece--) {
+            for (var direction : DIRECTIONS) {
+                if (model.isValidMove(piece, direction)) {
+                    movePiece = piece;
+                    moveDirection = direction;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void isValidMove(Blackhole blackhole) {
+        for (int piece = 0; piece < model.getCircleNumber(); piece++) {
+            for (var direction : DIRECTIONS) {
+                blackhole.consume(model.isValidMove(piece, direction));
+            }
+        }
+    }
+
+    @Benchmark
+    public void getValidMoves(Blackhole blackhole) {
+        for (int piece = 0; piece < model.getCircleNumber(); piece++) {
+            blackhole.consume(model.getValidMoves(piece));
+        }
+    }
+
+    // Undoing keeps every invocation on the start position; both halves
+    // include the property updates a listener would see.
+    @Benchmark
+    public void moveAndUndo() {
+        model.move(movePiece, moveDirection);
+        model.undo();
+    }
+
+    @Benchmark
+    public void winCheck(Blackhole blackhole) {
+        blackhole.consume(model.hasThreeInARow(CircleType.RED));
+        blackhole.consume(model.hasThreeInARow(CircleType.BLUE));
+    }
+
+    @Benchmark
+    public Object status() {
+        return model.getStatus();
+    }
+
+    @Benchmark
+    public int positionHashCode() {
+        int hash = 0;
+        for (var position : positions) {
+            hash += position.hashCode();
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public int positionEquals() {
+        int equal = 0;
+        for (int i = 0; i < positions.length; i++) {
+            if (positions[i].equals(copies[i])) {
+                equal++;
+            }
+            if (positions[i].equals(copies[positions.length - 1 - i])) {
+                equal++;
+            }
+        }
+        return equal;
+    }
+
+}
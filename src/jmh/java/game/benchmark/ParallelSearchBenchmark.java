@@ -0,0 +1,75 @@
+package game.benchmark;
+
+import game.engine.BoardState;
+import game.engine.search.ParallelSearch;
+import game.engine.search.SearchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lazy SMP scaling: time to finish a fixed-depth search from an empty
+ * table, per thread count. Most early positions are won within a few plies,
+ * which ends the search at once; the root here is a quiet position six
+ * plies in that is still undecided at this depth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelSearchBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private static final int[] OPENING = {0, 10, 7, 7, 11, 9};
+
+    @Param({"14"})
+    private int depth;
+
+    private ParallelSearch search;
+    private BoardState root;
+
+    @Setup
+    public void setUp() {
+        search = new ParallelSearch(threads);
+        search.setMaxDepth(depth);
+        root = BoardState.createDefault();
+        var moves = new int[root.getMaxMoves()];
+        // Indices into the generated moves, which come in a fixed order.
+        for (int index : OPENING) {
+            root.generateMoves(moves);
+            root.makeMove(moves[index]);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        search.getTable().clear();
+    }
+
+    @Benchmark
+    public SearchResult timeToDepth() {
+        return search.search(root, Long.MAX_VALUE / 2_000_000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        search.close();
+    }
+
+}
@@ -0,0 +1,62 @@
+package game.benchmark;
+
+import game.engine.BoardState;
+import game.engine.DrawRules;
+import game.engine.GameStatus;
+import game.model.BoardModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole games of uniformly random moves, played to a win, a loss by having
+ * no move, or a draw under the default rules. One operation is one game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomGameBenchmark {
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private int[] moves;
+
+    @Setup
+    public void setUp() {
+        moves = new int[BoardState.createDefault().getMaxMoves()];
+    }
+
+    @Benchmark
+    public GameStatus boardState() {
+        var state = BoardState.createDefault();
+        GameStatus status;
+        while ((status = GameStatus.of(state, DrawRules.DEFAULT, moves)) == GameStatus.ONGOING) {
+            state.makeMove(moves[random.nextInt(state.generateMoves(moves))]);
+        }
+        return status;
+    }
+
+    // The same game through the observable model the UI uses.
+    @Benchmark
+    public GameStatus boardModel() {
+        var model = new BoardModel();
+        GameStatus status;
+        while ((status = model.getStatus()) == GameStatus.ONGOING) {
+            model.makeMove(moves[random.nextInt(model.generateMoves(moves))]);
+        }
+        return status;
+    }
+
+}
@@ -0,0 +1,59 @@
+package game.benchmark;
+
+import game.engine.Board;
+import game.engine.DrawRules;
+import game.engine.GameStatus;
+import game.engine.Rules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random games on larger variants, given as rows x cols / pieces per side /
+ * line length. One operation is one game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VariantGameBenchmark {
+
+    @Param({"5x4/4/3", "8x8/8/4", "10x10/10/5"})
+    private String variant;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private Rules rules;
+    private int[] moves;
+
+    @Setup
+    public void setUp() {
+        String[] parts = variant.split("[x/]");
+        rules = Rules.of(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+        moves = new int[rules.createBoard().getMaxMoves()];
+    }
+
+    @Benchmark
+    public GameStatus randomGame() {
+        Board board = rules.createBoard();
+        GameStatus status;
+        while ((status = GameStatus.of(board, DrawRules.DEFAULT, moves)) == GameStatus.ONGOING) {
+            board.makeMove(moves[random.nextInt(board.generateMoves(moves))]);
+        }
+        return status;
+    }
+
+}
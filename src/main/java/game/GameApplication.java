@@ -1,5 +1,11 @@
 package game;
 
+import game.controller.BoardGameController;
+import game.engine.Rules;
+import game.engine.record.GameRecordWriter;
+import game.engine.search.TimeControl;
+import game.engine.tablebase.TablebaseFile;
+import game.model.CircleType;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -7,12 +13,45 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.nio.file.Path;
 
 public class GameApplication extends Application {
 
     @Override
     public void start(Stage stage) throws IOException{
-        Parent root = FXMLLoader.load(getClass().getResource("/ui.fxml"));
+        FXMLLoader loader = new FXMLLoader(getClass().getResource("/ui.fxml"));
+        Parent root = loader.load();
+        BoardGameController controller = loader.getController();
+        String boardSize = getParameters().getNamed().get("board");
+        if (boardSize != null) {
+            String[] size = boardSize.split("x");
+            int rows = Integer.parseInt(size[0]);
+            int cols = Integer.parseInt(size[1]);
+            String pieces = getParameters().getNamed().get("pieces");
+            String line = getParameters().getNamed().get("line");
+            controller.setRules(Rules.of(rows, cols,
+                    pieces == null ? cols : Integer.parseInt(pieces),
+                    line == null ? Rules.CLASSIC.getLineLength() : Integer.parseInt(line)));
+        }
+        String tablebase = getParameters().getNamed().get("tablebase");
+        if (tablebase != null) {
+            controller.setTablebase(TablebaseFile.open(Path.of(tablebase)));
+        }
+        String moveTime = getParameters().getNamed().get("move-time");
+        String gameTime = getParameters().getNamed().get("game-time");
+        if (moveTime != null || gameTime != null) {
+            controller.setTimeControl(new TimeControl(
+                    moveTime == null ? 100 : Long.parseLong(moveTime),
+                    gameTime == null ? 0 : Long.parseLong(gameTime)));
+        }
+        String record = getParameters().getNamed().get("record");
+        if (record != null) {
+            controller.setRecorder(GameRecordWriter.open(Path.of(record)));
+        }
+        String computer = getParameters().getNamed().get("computer");
+        if (computer != null) {
+            controller.setComputerPlayer(CircleType.valueOf(computer.toUpperCase()));
+        }
         stage.setTitle("Test");
         Scene scene = new Scene(root);
         stage.setScene(scene);
@@ -0,0 +1,270 @@
+package game;
+
+import game.engine.BoardState;
+import game.engine.Moves;
+import game.model.BoardModel;
+import game.model.CircleDirection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the move sequences of a given length, e.g.
+ * <pre>
+ * java -cp ... game.Perft 8 --divide --hash=22 --threads=8
+ * </pre>
+ * A won position or one without moves ends a sequence; draw rules are not
+ * applied. The root moves, and deeper moves while enough depth remains, are
+ * split into fork-join tasks. With {@code --hash=bits} subtree counts are
+ * shared between threads in a lock-free table keyed by the canonical hash,
+ * since symmetric positions have the same counts. {@code --model} counts
+ * through {@link BoardModel#getValidMoves} instead, as an independent
+ * check of the move generator. {@code --moves=40-31,03-12} plays moves,
+ * given as row and column digits, before counting.
+ */
+public final class Perft {
+
+    private static final int SPLIT_DEPTH = 5;
+
+    private final Cache cache;
+
+    public Perft() {
+        this(0);
+    }
+
+    /**
+     * @param hashBits size of the shared subtree cache, {@code 0} for none
+     */
+    public Perft(int hashBits) {
+        cache = hashBits == 0 ? null : new Cache(hashBits);
+    }
+
+    public long count(BoardState state, int depth) {
+        return count(state, depth, ForkJoinPool.commonPool());
+    }
+
+    public long count(BoardState state, int depth, ForkJoinPool pool) {
+        return pool.invoke(new Task(new BoardState(state), depth));
+    }
+
+    /**
+     * The count below each root move, in move generation order.
+     */
+    @SuppressWarnings("serial") // The tasks are never serialised.
+    public long[] divide(BoardState state, int depth, int[] moves, ForkJoinPool pool) {
+        int count = state.winner() == BoardState.EMPTY ? state.generateMoves(moves) : 0;
+        var tasks = new ArrayList<Task>(count);
+        for (int i = 0; i < count; i++) {
+            var child = new BoardState(state);
+            child.makeMove(moves[i]);
+            tasks.add(new Task(child, depth - 1));
+        }
+        return pool.invoke(new RecursiveTask<long[]>() {
+            @Override
+            protected long[] compute() {
+                invokeAll(tasks);
+                return tasks.stream().mapToLong(Task::join).toArray();
+            }
+        });
+    }
+
+    private long sequential(BoardState state, int depth, int[][] buffers) {
+        if (depth == 0) {
+            return 1;
+        }
+        if (state.winner() != BoardState.EMPTY) {
+            return 0;
+        }
+        var moves = buffers[depth];
+        int count = state.generateMoves(moves);
+        if (depth == 1) {
+            return count;
+        }
+        long key = 0;
+        if (cache != null) {
+            key = state.getCanonicalHash();
+            long cached = cache.probe(key, depth);
+            if (cached >= 0) {
+                return cached;
+            }
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            state.makeMove(moves[i]);
+            nodes += sequential(state, depth - 1, buffers);
+            state.unmakeMove();
+        }
+        if (cache != null) {
+            cache.store(key, depth, nodes);
+        }
+        return nodes;
+    }
+
+    @SuppressWarnings("serial") // Never serialised, like the task in divide.
+    private final class Task extends RecursiveTask<Long> {
+
+        private final BoardState state;
+        private final int depth;
+
+        Task(BoardState state, int depth) {
+            this.state = state;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth <= SPLIT_DEPTH || state.winner() != BoardState.EMPTY) {
+                var buffers = new int[depth + 1][state.getMaxMoves()];
+                return sequential(state, depth, buffers);
+            }
+            var moves = new int[state.getMaxMoves()];
+            int count = state.generateMoves(moves);
+            List<Task> children = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                var child = new BoardState(state);
+                child.makeMove(moves[i]);
+                children.add(new Task(child, depth - 1));
+            }
+            invokeAll(children);
+            long nodes = 0;
+            for (var child : children) {
+                nodes += child.join();
+            }
+            return nodes;
+        }
+
+    }
+
+    // Two words per entry as in the transposition table: the key XOR-ed
+    // with the data, and the data packing the count above the depth.
+    private static final class Cache {
+
+        private final long[] entries;
+        private final int mask;
+
+        Cache(int bits) {
+            if (bits < 1 || bits > 29) {
+                throw new IllegalArgumentException();
+            }
+            entries = new long[2 << bits];
+            mask = (1 << bits) - 1;
+        }
+
+        long probe(long key, int depth) {
+            int index = ((int) key & mask) << 1;
+            long data = entries[index + 1];
+            if (data != 0 && (entries[index] ^ data) == key && (data & 0xFF) == depth) {
+                return data >>> 8;
+            }
+            return -1;
+        }
+
+        void store(long key, int depth, long nodes) {
+            int index = ((int) key & mask) << 1;
+            long data = nodes << 8 | depth;
+            entries[index] = key ^ data;
+            entries[index + 1] = data;
+        }
+
+    }
+
+    /**
+     * The same count through the observable model, one direction at a time.
+     */
+    public static long countWithModel(BoardModel model, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        if (model.winner().isPresent()) {
+            return 0;
+        }
+        int side = model.getBoard().getSideToMove();
+        long nodes = 0;
+        for (int piece = 0; piece < model.getCircleNumber(); piece++) {
+            if (model.getCircleType(piece).ordinal() != side) {
+                continue;
+            }
+            for (CircleDirection direction : model.getValidMoves(piece)) {
+                model.move(piece, direction);
+                nodes += countWithModel(model, depth - 1);
+                model.undo();
+            }
+        }
+        return nodes;
+    }
+
+    private static int parseMove(BoardState state, String move) {
+        if (!move.matches("\\d\\d-\\d\\d")) {
+            throw new IllegalArgumentException("Expected a move like 40-31: " + move);
+        }
+        int from = BoardState.cellOf(move.charAt(0) - '0', move.charAt(1) - '0');
+        int to = BoardState.cellOf(move.charAt(3) - '0', move.charAt(4) - '0');
+        var moves = new int[state.getMaxMoves()];
+        int count = state.winner() == BoardState.EMPTY ? state.generateMoves(moves) : 0;
+        for (int i = 0; i < count; i++) {
+            if (Moves.from(moves[i]) == from && Moves.to(moves[i]) == to) {
+                return moves[i];
+            }
+        }
+        throw new IllegalArgumentException("Illegal move: " + move);
+    }
+
+    public static void main(String[] args) {
+        int depth = -1;
+        boolean divide = false;
+        boolean model = false;
+        int hashBits = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        var state = BoardState.createDefault();
+        for (var arg : args) {
+            if (!arg.startsWith("--")) {
+                depth = Integer.parseInt(arg);
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            var key = eq < 0 ? arg.substring(2) : arg.substring(2, eq);
+            var value = eq < 0 ? "" : arg.substring(eq + 1);
+            switch (key) {
+                case "divide" -> divide = true;
+                case "model" -> model = true;
+                case "hash" -> hashBits = Integer.parseInt(value);
+                case "threads" -> threads = Integer.parseInt(value);
+                case "moves" -> {
+                    for (var move : value.split(",")) {
+                        state.makeMove(parseMove(state, move));
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (depth < 0) {
+            System.err.println("Usage: Perft depth [--divide] [--hash=bits] [--threads=N] [--model] [--moves=40-31,...]");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        long nodes;
+        if (model) {
+            nodes = countWithModel(new BoardModel(state), depth);
+        } else {
+            var perft = new Perft(hashBits);
+            var pool = new ForkJoinPool(threads);
+            if (divide && depth > 0) {
+                var moves = new int[state.getMaxMoves()];
+                long[] counts = perft.divide(state, depth, moves, pool);
+                nodes = 0;
+                for (int i = 0; i < counts.length; i++) {
+                    System.out.println(Moves.toString(moves[i]) + ": " + counts[i]);
+                    nodes += counts[i];
+                }
+            } else {
+                nodes = perft.count(state, depth, pool);
+            }
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("perft(%d) = %d in %.3f s (%.1f Mnodes/s)%n", depth, nodes, seconds, nodes / seconds / 1e6);
+    }
+
+}
@@ -0,0 +1,45 @@
+package game;
+
+import game.engine.record.GameRecordReader;
+import game.model.BoardModel;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Streams game-record files through {@link BoardModel}, checking that every
+ * game replays to its recorded result, e.g.
+ * <pre>
+ * java -cp ... game.Replay games.bgr more-games.bgr
+ * </pre>
+ */
+public class Replay {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: Replay file...");
+            System.exit(2);
+        }
+        long games = 0;
+        long moves = 0;
+        long mismatches = 0;
+        long start = System.nanoTime();
+        for (var file : args) {
+            try (var reader = GameRecordReader.open(Path.of(file))) {
+                for (var record = reader.read(); record != null; record = reader.read()) {
+                    var model = new BoardModel(record.createStartState());
+                    record.forEachMove(model::move);
+                    if (model.getStatus() != record.getStatus()) {
+                        mismatches++;
+                    }
+                    games++;
+                    moves += record.getMoveCount();
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d games, %d moves in %.2f s (%.0f games/s), %d results differ%n",
+                games, moves, seconds, games / seconds, mismatches);
+    }
+
+}
@@ -0,0 +1,260 @@
+package game;
+
+import game.engine.BoardState;
+import game.engine.DrawRules;
+import game.engine.match.Elo;
+import game.engine.match.GameResult;
+import game.engine.match.Match;
+import game.engine.match.Player;
+import game.engine.match.PlayerSpec;
+import game.engine.record.GameRecord;
+import game.engine.record.GameRecordWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Headless self-play between engine configurations, e.g.
+ * <pre>
+ * java -cp ... game.Tournament --games=1000 --threads=8 alphabeta:depth=4 mcts:time=10 random
+ * </pre>
+ * Options: {@code --mode=round-robin|gauntlet} (in a gauntlet the first
+ * player meets every other one), {@code --games=N} per pairing,
+ * {@code --threads=N}, {@code --opening-plies=N}, {@code --seed=N} and
+ * {@code --record=file}, which appends every game to a game-record file.
+ * Every random opening is played twice with colours swapped.
+ */
+public class Tournament {
+
+    private final List<PlayerSpec> specs;
+    private final boolean gauntlet;
+    private final int gamesPerPairing;
+    private final int threads;
+    private final int openingPlies;
+    private final long seed;
+
+    private final Queue<Player> createdPlayers = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Player[]> players;
+    private final ThreadLocal<Match> matches = ThreadLocal.withInitial(() -> new Match(DrawRules.DEFAULT));
+
+    // Indexed [player][opponent], in half points: wins count 2, draws 1.
+    private final int[][] wins;
+    private final int[][] draws;
+    private final List<List<long[]>> moveNanos = new ArrayList<>();
+    private int games;
+    private GameRecordWriter recorder;
+
+    public Tournament(List<PlayerSpec> specs, boolean gauntlet, int gamesPerPairing, int threads, int openingPlies, long seed) {
+        if (specs.size() < 2 || gamesPerPairing < 1 || threads < 1 || openingPlies < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.specs = specs;
+        this.gauntlet = gauntlet;
+        this.gamesPerPairing = gamesPerPairing + (gamesPerPairing & 1);
+        this.threads = threads;
+        this.openingPlies = openingPlies;
+        this.seed = seed;
+        wins = new int[specs.size()][specs.size()];
+        draws = new int[specs.size()][specs.size()];
+        for (int i = 0; i < specs.size(); i++) {
+            moveNanos.add(new ArrayList<>());
+        }
+        players = ThreadLocal.withInitial(() -> {
+            var created = new Player[specs.size()];
+            long threadSeed = seed ^ Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+            for (int i = 0; i < created.length; i++) {
+                created[i] = specs.get(i).create(threadSeed + i);
+                createdPlayers.add(created[i]);
+            }
+            return created;
+        });
+    }
+
+    public void setRecorder(GameRecordWriter recorder) {
+        this.recorder = recorder;
+    }
+
+    public void run() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        var completion = new ExecutorCompletionService<GameResult[]>(executor);
+        int tasks = 0;
+        for (int i = 0; i < specs.size(); i++) {
+            for (int j = i + 1; j < specs.size(); j++) {
+                if (gauntlet && i != 0) {
+                    continue;
+                }
+                for (int k = 0; k < gamesPerPairing / 2; k++) {
+                    int a = i;
+                    int b = j;
+                    long openingSeed = seed + 0x9E3779B97F4A7C15L * (((long) a * specs.size() + b) * gamesPerPairing + k);
+                    completion.submit(() -> playPair(a, b, openingSeed));
+                    tasks++;
+                }
+            }
+        }
+        long start = System.nanoTime();
+        try {
+            for (int done = 1; done <= tasks; done++) {
+                for (var result : completion.take().get()) {
+                    record(result);
+                }
+                if (done % Math.max(1, tasks / 10) == 0) {
+                    System.err.printf("%d/%d games%n", games, tasks * 2);
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+            createdPlayers.forEach(Player::close);
+        }
+        report((System.nanoTime() - start) / 1e9);
+    }
+
+    private GameResult[] playPair(int a, int b, long openingSeed) {
+        var match = matches.get();
+        var entrants = players.get();
+        var opening = match.opening(openingPlies, openingSeed);
+        return new GameResult[] {
+                match.play(opening, a, entrants[a], b, entrants[b]),
+                match.play(opening, b, entrants[b], a, entrants[a])
+        };
+    }
+
+    private void record(GameResult result) {
+        games++;
+        int red = result.getRed();
+        int blue = result.getBlue();
+        switch (result.halfPointsOf(red)) {
+            case 2 -> wins[red][blue]++;
+            case 1 -> {
+                draws[red][blue]++;
+                draws[blue][red]++;
+            }
+            default -> wins[blue][red]++;
+        }
+        // Moves alternate from the end of the opening, starting with the side to move there.
+        var nanos = result.getMoveNanos();
+        int first = (result.getOpeningPlies() & 1) == 0 ? red : blue;
+        int second = first == red ? blue : red;
+        moveNanos.get(first).add(everyOther(nanos, 0));
+        moveNanos.get(second).add(everyOther(nanos, 1));
+        if (recorder != null) {
+            var state = BoardState.createDefault();
+            for (int move : result.getMoves()) {
+                state.makeMove(move);
+            }
+            try {
+                recorder.write(GameRecord.of(state, result.getStatus(), specs.get(red).getName(),
+                        specs.get(blue).getName(), result.getOpeningPlies(), System.currentTimeMillis()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static long[] everyOther(long[] values, int offset) {
+        long[] result = new long[(values.length - offset + 1) / 2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values[offset + 2 * i];
+        }
+        return result;
+    }
+
+    private void report(double seconds) {
+        System.out.printf("%d games in %.1f s (%.1f games/s, %d threads)%n%n", games, seconds, games / seconds, threads);
+        System.out.printf("%-32s %7s %7s %7s %7s  %s%n", "Player", "Games", "Wins", "Draws", "Losses", "Elo vs field (95%)");
+        for (int i = 0; i < specs.size(); i++) {
+            int w = 0;
+            int d = 0;
+            int l = 0;
+            for (int j = 0; j < specs.size(); j++) {
+                w += wins[i][j];
+                d += draws[i][j];
+                l += wins[j][i];
+            }
+            System.out.printf("%-32s %7d %7d %7d %7d  %s%n", specs.get(i), w + d + l, w, d, l, Elo.of(w, d, l));
+        }
+        System.out.println();
+        System.out.printf("%-32s %-32s %7s %7s %7s  %s%n", "Player", "Opponent", "Wins", "Draws", "Losses", "Elo (95%)");
+        for (int i = 0; i < specs.size(); i++) {
+            for (int j = i + 1; j < specs.size(); j++) {
+                if (wins[i][j] + draws[i][j] + wins[j][i] > 0) {
+                    System.out.printf("%-32s %-32s %7d %7d %7d  %s%n", specs.get(i), specs.get(j),
+                            wins[i][j], draws[i][j], wins[j][i], Elo.of(wins[i][j], draws[i][j], wins[j][i]));
+                }
+            }
+        }
+        System.out.println();
+        System.out.printf("%-32s %9s %9s %9s %9s %9s%n", "Move latency (ms)", "moves", "p50", "p90", "p99", "max");
+        for (int i = 0; i < specs.size(); i++) {
+            long[] all = moveNanos.get(i).stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            if (all.length > 0) {
+                System.out.printf("%-32s %9d %9.3f %9.3f %9.3f %9.3f%n", specs.get(i), all.length,
+                        percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), all[all.length - 1] / 1e6);
+            }
+        }
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        List<PlayerSpec> specs = new ArrayList<>();
+        boolean gauntlet = false;
+        int games = 100;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int openingPlies = 2;
+        long seed = 1;
+        Path record = null;
+        for (var arg : args) {
+            if (!arg.startsWith("--")) {
+                specs.add(PlayerSpec.parse(arg));
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            var key = eq < 0 ? arg.substring(2) : arg.substring(2, eq);
+            var value = eq < 0 ? "" : arg.substring(eq + 1);
+            switch (key) {
+                case "mode" -> gauntlet = switch (value) {
+                    case "gauntlet" -> true;
+                    case "round-robin" -> false;
+                    default -> throw new IllegalArgumentException("Unknown mode: " + value);
+                };
+                case "games" -> games = Integer.parseInt(value);
+                case "threads" -> threads = Integer.parseInt(value);
+                case "opening-plies" -> openingPlies = Integer.parseInt(value);
+                case "seed" -> seed = Long.parseLong(value);
+                case "record" -> record = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (specs.size() < 2) {
+            System.err.println("Usage: Tournament [--mode=round-robin|gauntlet] [--games=N] [--threads=N]"
+                    + " [--opening-plies=N] [--seed=N] [--record=file] player player...");
+            System.exit(2);
+        }
+        var tournament = new Tournament(specs, gauntlet, games, threads, openingPlies, seed);
+        if (record == null) {
+            tournament.run();
+            return;
+        }
+        try (var recorder = GameRecordWriter.open(record)) {
+            tournament.setRecorder(recorder);
+            tournament.run();
+        }
+    }
+
+}
@@ -1,29 +1,55 @@
 package game.controller;
 
+import game.engine.GameStatus;
+import game.engine.Moves;
+import game.engine.Rules;
+import game.engine.record.GameRecord;
+import game.engine.record.GameRecordWriter;
+import game.engine.search.AsyncEngine;
+import game.engine.search.ParallelSearch;
+import game.engine.search.SearchResult;
+import game.engine.search.TimeControl;
+import game.engine.tablebase.Tablebase;
 import game.model.BoardModel;
 import game.model.CircleDirection;
+import game.model.CircleType;
 import game.model.Position;
 
-import javafx.beans.value.ObservableValue;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
+import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.RowConstraints;
 import javafx.scene.layout.StackPane;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import org.tinylog.Logger;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-
-import static java.util.Comparator.comparing;
+import java.util.concurrent.CompletableFuture;
 
 public class BoardGameController {
 
     private enum Players{
-        RED_PLAYER,
-        BLUE_PLAYER;
+        RED_PLAYER(CircleType.RED),
+        BLUE_PLAYER(CircleType.BLUE);
+
+        private final CircleType type;
+
+        Players(CircleType type) {
+            this.type = type;
+        }
+
+        public CircleType getType() {
+            return type;
+        }
 
         public Players alter() {
             return switch (this) {
@@ -46,6 +72,9 @@ public class BoardGameController {
         }
     }
 
+    private static final KeyCombination UNDO = new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN);
+    private static final KeyCombination REDO = new KeyCodeCombination(KeyCode.Y, KeyCombination.SHORTCUT_DOWN);
+
     private Players players = Players.RED_PLAYER;
     private Select select = Select.SELECT_FROM;
 
@@ -53,23 +82,224 @@ public class BoardGameController {
 
     private Position selected;
 
+    private StackPane[][] squares;
+
+    // The squares styled as selectable, kept in step with selectPos by
+    // updateSelectablePositions, which only restyles squares that change.
+    private boolean[][] highlighted;
+
+    private boolean[][] wanted;
+
+    private final List<Position> highlightedPos = new ArrayList<>();
+
     private BoardModel model = new BoardModel();
 
+    private int[] moveBuffer = new int[model.getMaxMoves()];
+
+    // Created when a computer player is first chosen: the shared table
+    // alone takes about 64 MB, and most games are between humans.
+    private ParallelSearch search;
+
+    private AsyncEngine engine;
+
+    private Tablebase tablebase;
+
+    private TimeControl timeControl = new TimeControl(100);
+
+    private CompletableFuture<SearchResult> pendingMove;
+
+    private CircleType computerPlayer;
+
+    private GameRecordWriter recorder;
+
+    // Set once the current game has been recorded, so taking back moves and
+    // finishing it again does not record it twice.
+    private boolean recorded;
+
     @FXML
     private GridPane board;
 
+    @FXML
+    private Pane pieceLayer;
+
+    private PieceAnimator animator;
+
     @FXML
     private void initialize(){
+        animator = new PieceAnimator(pieceLayer);
         createBoard();
         createCircles();
-        setSelectablePositions();
-        showSelectablePositions();
+        updateSelectablePositions();
+        board.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (newScene != null) {
+                newScene.getAccelerators().put(UNDO, this::handleUndo);
+                newScene.getAccelerators().put(REDO, this::handleRedo);
+            }
+        });
+    }
+
+    public void setRules(Rules rules){
+        cancelComputerMove();
+        model = new BoardModel(rules);
+        recorded = false;
+        timeControl.reset();
+        moveBuffer = new int[model.getMaxMoves()];
+        players = Players.RED_PLAYER;
+        select = Select.SELECT_FROM;
+        selected = null;
+        selectPos.clear();
+        if(computerPlayer != null && ! model.isClassicBoard()){
+            Logger.warn("The computer player only plays on the classic board");
+            computerPlayer = null;
+        }
+        board.getChildren().clear();
+        animator.clear();
+        createBoard();
+        createCircles();
+        updateSelectablePositions();
+        playComputerMove();
+    }
+
+    public void setComputerPlayer(CircleType type){
+        if(type != null && ! model.isClassicBoard()){
+            Logger.warn("The computer player only plays on the classic board");
+            return;
+        }
+        cancelComputerMove();
+        if(type != null && engine == null){
+            search = new ParallelSearch(Runtime.getRuntime().availableProcessors());
+            search.setTablebase(tablebase);
+            engine = new AsyncEngine(search);
+            engine.setTimeControl(timeControl);
+        }
+        timeControl.reset();
+        computerPlayer = type;
+        resetSelection();
+        updateSelectablePositions();
+        playComputerMove();
+    }
+
+    public void setTablebase(Tablebase tablebase){
+        this.tablebase = tablebase;
+        if(engine != null){
+            cancelComputerMove();
+            engine.configure(() -> search.setTablebase(tablebase));
+            playComputerMove();
+        }
+    }
+
+    public void setRecorder(GameRecordWriter recorder){
+        this.recorder = recorder;
+    }
+
+    public void setTimeControl(TimeControl timeControl){
+        this.timeControl = timeControl;
+        if(engine != null){
+            engine.setTimeControl(timeControl);
+        }
+    }
+
+    private boolean isComputerTurn(){
+        return computerPlayer != null && players.getType() == computerPlayer;
+    }
+
+    private void playComputerMove(){
+        if(isComputerTurn() && ! isGameOver() && pendingMove == null){
+            var request = engine.requestMove(model.getState());
+            pendingMove = request;
+            request.thenAcceptAsync(result -> applyComputerMove(request, result), Platform::runLater);
+            request.whenComplete((result, failure) -> {
+                if(failure != null && ! request.isCancelled()){
+                    Logger.error(failure, "Computer move failed");
+                }
+            });
+        }
+    }
+
+    private void applyComputerMove(CompletableFuture<SearchResult> request, SearchResult result){
+        if(request != pendingMove){
+            return;
+        }
+        pendingMove = null;
+        Logger.info("Computer move: " + result);
+        if(result.move() != Moves.NONE){
+            model.makeMove(result.move());
+            checkWinner();
+            alterPlayerPhase();
+            if(! isGameOver()){
+                engine.ponder(model.getState());
+            }
+        }
+    }
+
+    private void cancelComputerMove(){
+        if(pendingMove != null){
+            pendingMove.cancel(true);
+            pendingMove = null;
+        }
+        if(engine != null){
+            engine.stopPondering();
+        }
+    }
+
+    private void handleUndo(){
+        if(model.canUndo()){
+            cancelComputerMove();
+            resetSelection();
+            model.undo();
+            alterPlayerPhase();
+            if(isComputerTurn() && model.canUndo()){
+                model.undo();
+                alterPlayerPhase();
+            }
+            playComputerMove();
+        }
+    }
+
+    private void handleRedo(){
+        if(model.canRedo()){
+            cancelComputerMove();
+            resetSelection();
+            model.redo();
+            logWinner();
+            alterPlayerPhase();
+            if(isComputerTurn() && model.canRedo()){
+                model.redo();
+                logWinner();
+                alterPlayerPhase();
+            }
+            playComputerMove();
+        }
+    }
+
+    private void resetSelection(){
+        if(select == Select.SELECT_TO){
+            deselectSelectedPosition();
+            select = select.alter();
+        }
     }
 
     private void createBoard(){
-        for(int i = 0; i < board.getRowCount();i++){
-            for(int j = 0; j < board.getColumnCount();j++){
+        squares = new StackPane[model.getRows()][model.getCols()];
+        highlighted = new boolean[model.getRows()][model.getCols()];
+        wanted = new boolean[model.getRows()][model.getCols()];
+        highlightedPos.clear();
+        board.getRowConstraints().clear();
+        board.getColumnConstraints().clear();
+        for(int i = 0; i < model.getRows();i++){
+            var row = new RowConstraints();
+            row.setPercentHeight(100.0 / model.getRows());
+            board.getRowConstraints().add(row);
+        }
+        for(int j = 0; j < model.getCols();j++){
+            var column = new ColumnConstraints();
+            column.setPercentWidth(100.0 / model.getCols());
+            board.getColumnConstraints().add(column);
+        }
+        for(int i = 0; i < model.getRows();i++){
+            for(int j = 0; j < model.getCols();j++){
                 var square = createSquare();
+                squares[i][j] = square;
                 board.add(square, j,i);
             }
         }
@@ -85,14 +315,16 @@ public class BoardGameController {
 
     private void createCircles(){
         for(int i = 0; i < model.getCircleNumber();i++){
-            model.positionProperty(i).addListener(this::circlePositionChange);
+            int piece = i;
+            model.positionProperty(i).addListener((observable, oldPosition, newPosition) ->
+                    animator.moveTo(piece, getCircle(newPosition)));
             var circle = createCircle(Color.valueOf(model.getCircleType(i).name()));
-            getCircle(model.getCirclePosition(i)).getChildren().add(circle);
+            animator.addPiece(circle, getCircle(model.getCirclePosition(i)));
         }
     }
 
     private Circle createCircle(Color color){
-        var circle = new javafx.scene.shape.Circle(50);
+        var circle = new javafx.scene.shape.Circle(250.0 / Math.max(model.getRows(), model.getCols()));
         circle.setFill(color);
         return circle;
     }
@@ -102,7 +334,7 @@ public class BoardGameController {
         var square = (StackPane) event.getSource();
         var row = GridPane.getRowIndex(square);
         var col = GridPane.getColumnIndex(square);
-        var pos = new Position(row,col);
+        var pos = Position.of(row,col);
 
         handleClickOnSquare(pos);
 
@@ -111,14 +343,14 @@ public class BoardGameController {
     private void handleClickOnSquare(Position pos){
         switch (select){
             case SELECT_FROM ->{
-                if(selectPos.contains(pos) ){
+                if(isSelectable(pos)){
                     selectPosition(pos);
                     alterSelectionPhase();
 
                 }
             }
             case SELECT_TO -> {
-                if(selectPos.contains(pos)){
+                if(isSelectable(pos)){
 
                     var circleNumber  = model.getCircleNumber(selected).getAsInt();
                     var direction = CircleDirection.of(pos.x() - selected.x(), pos.y() - selected.y());
@@ -129,6 +361,7 @@ public class BoardGameController {
                     checkWinner();
                     alterSelectionPhase();
                     alterPlayerPhase();
+                    playComputerMove();
 
                 }
             }
@@ -145,211 +378,52 @@ public class BoardGameController {
 
 
     private void checkWinner(){
-        List<Position> allPos = new ArrayList<>();
-        allPos.addAll(model.getCirclePositions());
-
-        List<Position> RedPos = new ArrayList<>();
-        List<Position> BluePos = new ArrayList<>();
-
-        for(int i =0; i<allPos.size();i++){
-
-            if(getCircleColor(i) == "RED"){
-                RedPos.add(allPos.get(i));
-            }
-            else if(getCircleColor(i) == "BLUE"){
-                BluePos.add(allPos.get(i));
+        var status = model.getStatus();
+        if(status.isOver()){
+            Logger.info(status);
+            if(! recorded){
+                recorded = true;
+                recordGame(status);
             }
         }
-
-        Collections.sort(RedPos, comparing(Position::x).thenComparing(Position::y));
-        Collections.sort(BluePos, comparing(Position::x).thenComparing(Position::y));
-
-        int[] row = new int[5];
-        int[] col = new int[4];
-        int[] diagonal = new int[4];
-
-        for(int i=0;i<5;i++){
-            row[i]=checkMoveRow(i,RedPos);
-        }
-
-        for(int i=0;i<3;i++){
-            col[i]=checkMoveCol(i,RedPos);
-        }
-
-        for(int i=0;i<4;i++){
-            diagonal[i]=checkMoveDiagonal(RedPos);
-        }
-
-
-        for(var s:row){
-            if(s==3){
-                Logger.info("RED WINS");
-            }
-            //Logger.info("Sor: "+s);
-        }
-
-        for(var s:col){
-            if(s==6){
-                Logger.info("RED WINS");
-            }
-            //Logger.info("Oszlop: "+s);
-        }
-
-        for(var s:diagonal){
-            Logger.info("ATLO: "+s);
-        }
-        diagonalWinCheck(diagonal);
-
-        Logger.info("RED POS: ");
-        Logger.info(RedPos);
-
-        Logger.info("BLUE POS: ");
-        Logger.info(BluePos);
-
-
     }
 
-    public void diagonalWinCheck(int[] diagonalArray){
-
-        if(diagonalArray[0]==1 && diagonalArray[1]==1 && diagonalArray[2]==1){
-            Logger.info("RED WIN");
+    // Redo only replays moves that were already played, so it never records.
+    private void logWinner(){
+        if(isGameOver()){
+            Logger.info(model.getStatus());
         }
-        else if(diagonalArray[1]==1 && diagonalArray[2]==1 && diagonalArray[3]==1){
-            Logger.info("RED WIN");
-        }
-
     }
 
-    public int checkMoveRow(int row,List<Position> PosList){
-        int count = 0;
-        for(int i=0;i<PosList.size();i++){
-            if (PosList.get(i).x() == row && PosList.get(i).y() < 4) {
-                if (PosList.get(2).y() - PosList.get(0).y() != 3) {
-                    count++;
-                }
-            }
+    private void recordGame(GameStatus status){
+        if(recorder == null || ! model.isClassicBoard()){
+            return;
         }
-
-
-        return count;
-    }
-
-    public int checkMoveCol(int col,List<Position> PosList){
-        int count = 0;
-
-        for(int j=0;j<PosList.size();j++) {
-            if (PosList.get(j).y() == col) {
-                for (int i = 1; i < PosList.size() - 1; i++) {
-                    if ((PosList.get(i + 1).x() - PosList.get(i).x() == 1) && (PosList.get(i + 1).y() - PosList.get(i).y() == 0)) {
-                        count++;
-                    }
-                }
-            }
+        try{
+            recorder.write(GameRecord.of(model.getState(), status, playerName(CircleType.RED), playerName(CircleType.BLUE),
+                    0, System.currentTimeMillis()));
+            recorder.flush();
+        }catch(IOException e){
+            Logger.error(e, "Could not record the game");
         }
-
-        return count;
     }
 
-    public int checkMoveDiagonal(List<Position> PosList){
-
-        int count = 0;
-
-        List<Position> diagonal1 = new ArrayList<>();
-        diagonal1.add(new Position(0,0));
-        diagonal1.add(new Position(1,1));
-        diagonal1.add(new Position(2,2));
-        diagonal1.add(new Position(3,3));
-
-        List<Position> diagonal2 = new ArrayList<>();
-        diagonal2.add(new Position(0,1));
-        diagonal2.add(new Position(1,2));
-        diagonal2.add(new Position(2,3));
-
-        List<Position> diagonal3 = new ArrayList<>();
-        diagonal3.add(new Position(1,0));
-        diagonal3.add(new Position(2,1));
-        diagonal3.add(new Position(3,2));
-        diagonal3.add(new Position(4,3));
-
-        List<Position> diagonal4 = new ArrayList<>();
-        diagonal4.add(new Position(2,0));
-        diagonal4.add(new Position(3,1));
-        diagonal4.add(new Position(4,2));
-
-        List<Position> diagonal5= new ArrayList<>();
-        diagonal5.add(new Position(0,2));
-        diagonal5.add(new Position(1,1));
-        diagonal5.add(new Position(2,0));
-
-        List<Position> diagonal6 = new ArrayList<>();
-        diagonal6.add(new Position(0,3));
-        diagonal6.add(new Position(1,2));
-        diagonal6.add(new Position(2,1));
-        diagonal6.add(new Position(3,0));
-
-        List<Position> diagonal7 = new ArrayList<>();
-        diagonal7.add(new Position(1,3));
-        diagonal7.add(new Position(2,2));
-        diagonal7.add(new Position(3,1));
-        diagonal7.add(new Position(4,0));
-
-        List<Position> diagonal8= new ArrayList<>();
-        diagonal8.add(new Position(2,3));
-        diagonal8.add(new Position(3,2));
-        diagonal8.add(new Position(4,1));
-
-
-
-        if(containsAny(PosList,diagonal1)==3){
-            count = containsAny(PosList,diagonal1);
-        }
-        else if(containsAny(PosList,diagonal2)==3){
-            count = containsAny(PosList,diagonal2);
-        }
-        else if(containsAny(PosList,diagonal3)==3){
-            count = containsAny(PosList,diagonal3);
-        }
-        else if(containsAny(PosList,diagonal4)==3){
-            count = containsAny(PosList,diagonal4);
-        }
-        else if(containsAny(PosList,diagonal5)==3){
-            count = containsAny(PosList,diagonal5);
-        }
-        else if(containsAny(PosList,diagonal6)==3){
-            count = containsAny(PosList,diagonal6);
-        }
-        else if(containsAny(PosList,diagonal7)==3){
-            count = containsAny(PosList,diagonal7);
-        }
-        else if(containsAny(PosList,diagonal8)==3){
-            count = containsAny(PosList,diagonal8);
-        }
-
-        return count;
+    private String playerName(CircleType type){
+        return type == computerPlayer ? "computer" : "human";
     }
 
-    public int containsAny(List<Position> l1, List<Position> l2) {
-        int count = 0;
-        for (Position elem : l1) {
-            if (l2.contains(elem)) {
-                count++;
-            }
-        }
-        return count;
+    private boolean isGameOver(){
+        return model.getStatus().isOver();
     }
 
     private void alterPlayerPhase(){
         players = players.alter();
-        hideSelectablePositions();
-        setSelectablePositions();
-        showSelectablePositions();
+        updateSelectablePositions();
     }
 
     private void alterSelectionPhase() {
         select = select.alter();
-        hideSelectablePositions();
-        setSelectablePositions();
-        showSelectablePositions();
+        updateSelectablePositions();
     }
 
     private void selectPosition(Position position) {
@@ -374,6 +448,9 @@ public class BoardGameController {
 
     private void setSelectablePositions() {
         selectPos.clear();
+        if(isComputerTurn() || isGameOver()){
+            return;
+        }
         if(players.name()=="RED_PLAYER"){
             switch (select) {
                 case SELECT_FROM -> {
@@ -387,9 +464,7 @@ public class BoardGameController {
                 case SELECT_TO -> {
                     var pieceNumber = model.getCircleNumber(selected).getAsInt();
                     if(getCircleColor(pieceNumber)=="RED"){
-                        for (var direction : model.getValidMoves(pieceNumber)) {
-                            selectPos.add(selected.moveTo(direction));
-                        }
+                        addValidTargets(pieceNumber);
                     }
                 }
             }
@@ -407,9 +482,7 @@ public class BoardGameController {
                 case SELECT_TO -> {
                     var pieceNumber = model.getCircleNumber(selected).getAsInt();
                     if(getCircleColor(pieceNumber)=="BLUE"){
-                        for (var direction : model.getValidMoves(pieceNumber)) {
-                            selectPos.add(selected.moveTo(direction));
-                        }
+                        addValidTargets(pieceNumber);
                     }
                 }
             }
@@ -417,37 +490,43 @@ public class BoardGameController {
 
     }
 
-    private void showSelectablePositions() {
-        for (var selectablePosition : selectPos) {
-            var square = getCircle(selectablePosition);
-            square.getStyleClass().add("selectable");
+    private void addValidTargets(int pieceNumber) {
+        int count = model.generateMoves(moveBuffer);
+        for (int i = 0; i < count; i++) {
+            if (Moves.piece(moveBuffer[i]) == pieceNumber) {
+                selectPos.add(model.toPosition(Moves.to(moveBuffer[i])));
+            }
         }
-
-
     }
 
-    private void hideSelectablePositions() {
-        for (var selectablePosition : selectPos) {
-            var square = getCircle(selectablePosition);
-            square.getStyleClass().remove("selectable");
+    private void updateSelectablePositions() {
+        setSelectablePositions();
+        for (var position : selectPos) {
+            wanted[position.x()][position.y()] = true;
         }
-    }
-
-    private StackPane getCircle(Position position) {
-        for (var child : board.getChildren()) {
-            if (GridPane.getRowIndex(child) == position.x() && GridPane.getColumnIndex(child) == position.y()) {
-                return (StackPane) child;
+        for (var position : highlightedPos) {
+            if (! wanted[position.x()][position.y()]) {
+                highlighted[position.x()][position.y()] = false;
+                getCircle(position).getStyleClass().remove("selectable");
+            }
+        }
+        for (var position : selectPos) {
+            if (! highlighted[position.x()][position.y()]) {
+                highlighted[position.x()][position.y()] = true;
+                getCircle(position).getStyleClass().add("selectable");
             }
+            wanted[position.x()][position.y()] = false;
         }
-        throw new AssertionError();
+        highlightedPos.clear();
+        highlightedPos.addAll(selectPos);
     }
 
-    private void circlePositionChange(ObservableValue<? extends Position> observable, Position oldPosition, Position newPosition) {
-        StackPane oldSquare = getCircle(oldPosition);
-        StackPane newSquare = getCircle(newPosition);
-        newSquare.getChildren().addAll(oldSquare.getChildren());
-        oldSquare.getChildren().clear();
+    private boolean isSelectable(Position position) {
+        return highlighted[position.x()][position.y()];
     }
 
-}
+    private StackPane getCircle(Position position) {
+        return squares[position.x()][position.y()];
+    }
 
+}
@@ -0,0 +1,132 @@
+package game.controller;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.layout.Pane;
+import javafx.scene.shape.Circle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Draws the pieces as long-lived nodes on an overlay above the board and
+ * slides them between squares. Pieces are placed by translation only, so a
+ * move never reparents a node or triggers layout; one timer animates all
+ * moving pieces and stops itself once they have arrived.
+ */
+final class PieceAnimator extends AnimationTimer {
+
+    private static final long MOVE_NANOS = 150_000_000;
+
+    private final Pane layer;
+    private final List<Piece> pieces = new ArrayList<>();
+    private boolean snap;
+    private boolean running;
+
+    PieceAnimator(Pane layer) {
+        this.layer = layer;
+        layer.setMouseTransparent(true);
+    }
+
+    void addPiece(Circle node, Node square) {
+        node.setManaged(false);
+        layer.getChildren().add(node);
+        pieces.add(new Piece(node, square));
+        // Squares move when the board is laid out or resized; follow them.
+        square.boundsInParentProperty().addListener((observable, oldBounds, newBounds) -> snapAll());
+        snapAll();
+    }
+
+    void moveTo(int piece, Node square) {
+        var moving = pieces.get(piece);
+        moving.fromX = moving.node.getTranslateX();
+        moving.fromY = moving.node.getTranslateY();
+        moving.square = square;
+        moving.start = -1;
+        moving.moving = true;
+        ensureRunning();
+    }
+
+    void clear() {
+        stop();
+        running = false;
+        pieces.clear();
+        layer.getChildren().clear();
+    }
+
+    private void snapAll() {
+        snap = true;
+        ensureRunning();
+    }
+
+    private void ensureRunning() {
+        if (!running) {
+            running = true;
+            start();
+        }
+    }
+
+    @Override
+    public void handle(long now) {
+        boolean busy = false;
+        boolean snapping = snap;
+        snap = false;
+        for (var piece : pieces) {
+            if (piece.moving) {
+                if (piece.start < 0) {
+                    piece.start = now;
+                }
+                double t = Math.min(1, (now - piece.start) / (double) MOVE_NANOS);
+                var target = centreOf(piece.square);
+                if (target == null) {
+                    busy = true;
+                    continue;
+                }
+                double eased = t * t * (3 - 2 * t);
+                piece.node.setTranslateX(piece.fromX + (target.getX() - piece.fromX) * eased);
+                piece.node.setTranslateY(piece.fromY + (target.getY() - piece.fromY) * eased);
+                piece.moving = t < 1;
+                busy |= piece.moving;
+            } else if (snapping) {
+                var target = centreOf(piece.square);
+                if (target == null) {
+                    snap = true;
+                    continue;
+                }
+                piece.node.setTranslateX(target.getX());
+                piece.node.setTranslateY(target.getY());
+            }
+        }
+        if (!busy && !snap) {
+            stop();
+            running = false;
+        }
+    }
+
+    // Null until the square has been laid out in the same scene as the layer.
+    private Point2D centreOf(Node square) {
+        if (square.getScene() == null || layer.getScene() == null) {
+            return null;
+        }
+        var bounds = square.localToScene(square.getLayoutBounds());
+        return layer.sceneToLocal(bounds.getCenterX(), bounds.getCenterY());
+    }
+
+    private static final class Piece {
+
+        private final Circle node;
+        private Node square;
+        private double fromX;
+        private double fromY;
+        private long start;
+        private boolean moving;
+
+        Piece(Circle node, Node square) {
+            this.node = node;
+            this.square = square;
+        }
+
+    }
+
+}
@@ -0,0 +1,246 @@
+package game.engine;
+
+import game.model.CircleDirection;
+import game.model.CircleType;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+/**
+ * The part of a {@link Board} that does not depend on how cells are stored:
+ * pieces, side to move, winner, hash and the move history with undo, redo
+ * and repetition checks. Subclasses keep their own colour masks up to date
+ * in {@link #toggle} and find lines in {@link #hasLineThrough}.
+ */
+abstract class AbstractBoard implements Board {
+
+    final int[] pieceColour;
+    final int[] pieceCell;
+    final byte[] cellPiece;
+    int sideToMove;
+    int winner;
+    long hash;
+
+    // Each entry is a packed move with the winner before it in the top byte.
+    private int[] history = new int[64];
+    private long[] hashHistory = new long[64];
+    private int ply;
+    private int redoLimit;
+
+    AbstractBoard(int pieces, int cells, int sideToMove) {
+        if (sideToMove != BoardState.RED && sideToMove != BoardState.BLUE) {
+            throw new IllegalArgumentException();
+        }
+        this.sideToMove = sideToMove;
+        pieceColour = new int[pieces];
+        pieceCell = new int[pieces];
+        cellPiece = new byte[cells];
+        Arrays.fill(cellPiece, (byte) BoardState.EMPTY);
+    }
+
+    AbstractBoard(AbstractBoard other) {
+        pieceColour = other.pieceColour.clone();
+        pieceCell = other.pieceCell.clone();
+        cellPiece = other.cellPiece.clone();
+        sideToMove = other.sideToMove;
+        winner = other.winner;
+        hash = other.hash;
+        history = other.history.clone();
+        hashHistory = other.hashHistory.clone();
+        ply = other.ply;
+        redoLimit = other.redoLimit;
+    }
+
+    // Puts a piece on an empty cell while setting up; the subclass adds it
+    // to its masks and hash.
+    void place(int piece, int colour, int cell) {
+        if (cell < 0 || cell >= cellPiece.length || cellPiece[cell] != BoardState.EMPTY) {
+            throw new IllegalArgumentException();
+        }
+        pieceColour[piece] = colour;
+        pieceCell[piece] = cell;
+        cellPiece[cell] = (byte) piece;
+    }
+
+    /**
+     * Moves a piece of the colour in the subclass's masks and updates the
+     * hash, including the side to move.
+     */
+    abstract void toggle(int colour, int from, int to);
+
+    abstract boolean hasLineThrough(int colour, int cell);
+
+    @Override
+    public int getPieceCount() {
+        return pieceCell.length;
+    }
+
+    @Override
+    public int getPieceColour(int piece) {
+        return pieceColour[piece];
+    }
+
+    @Override
+    public CircleType getPieceType(int piece) {
+        return CircleType.values()[pieceColour[piece]];
+    }
+
+    @Override
+    public int getPieceCell(int piece) {
+        return pieceCell[piece];
+    }
+
+    @Override
+    public int getPieceAt(int cell) {
+        return cellPiece[cell];
+    }
+
+    @Override
+    public long getHash() {
+        return hash;
+    }
+
+    @Override
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    @Override
+    public int getMaxMoves() {
+        return pieceCell.length * BoardState.DIRECTIONS;
+    }
+
+    @Override
+    public boolean isValidMove(int piece, CircleDirection direction) {
+        int to = getNeighbour(pieceCell[piece], direction);
+        return to != BoardState.EMPTY && isEmpty(to);
+    }
+
+    @Override
+    public int generateMoves(int[] buffer) {
+        return generateMoves(sideToMove, buffer);
+    }
+
+    @Override
+    public int winner() {
+        return winner;
+    }
+
+    int findWinner() {
+        if (hasLine(BoardState.RED)) {
+            return BoardState.RED;
+        }
+        if (hasLine(BoardState.BLUE)) {
+            return BoardState.BLUE;
+        }
+        return BoardState.EMPTY;
+    }
+
+    @Override
+    public void makeMove(int move) {
+        if (ply == history.length) {
+            history = Arrays.copyOf(history, ply * 2);
+            hashHistory = Arrays.copyOf(hashHistory, ply * 2);
+        }
+        hashHistory[ply] = hash;
+        history[ply++] = move | (winner + 1) << 24;
+        redoLimit = ply;
+        apply(Moves.piece(move), Moves.from(move), Moves.to(move));
+        updateWinner(pieceColour[Moves.piece(move)], Moves.to(move));
+    }
+
+    @Override
+    public void unmakeMove() {
+        if (!canUndo()) {
+            throw new IllegalStateException("No move to undo");
+        }
+        int entry = history[--ply];
+        apply(Moves.piece(entry), Moves.to(entry), Moves.from(entry));
+        winner = (entry >>> 24) - 1;
+    }
+
+    @Override
+    public int redoMove() {
+        if (!canRedo()) {
+            throw new IllegalStateException("No move to redo");
+        }
+        int move = history[ply] & 0xFFFFFF;
+        int limit = redoLimit;
+        makeMove(move);
+        redoLimit = limit;
+        return move;
+    }
+
+    @Override
+    public boolean canUndo() {
+        return ply > 0;
+    }
+
+    @Override
+    public boolean canRedo() {
+        return ply < redoLimit;
+    }
+
+    @Override
+    public int getPly() {
+        return ply;
+    }
+
+    // Every move is reversible, so the whole history has to be searched;
+    // only positions with the same side to move can match.
+    @Override
+    public int getRepetitions() {
+        int repetitions = 0;
+        for (int i = ply - 2; i >= 0; i -= 2) {
+            if (hashHistory[i] == hash) {
+                repetitions++;
+            }
+        }
+        return repetitions;
+    }
+
+    @Override
+    public boolean isRepetition() {
+        for (int i = ply - 2; i >= 0; i -= 2) {
+            if (hashHistory[i] == hash) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getLastMove() {
+        return ply == 0 ? Moves.NONE : history[ply - 1] & 0xFFFFFF;
+    }
+
+    private void apply(int piece, int from, int to) {
+        toggle(pieceColour[piece], from, to);
+        cellPiece[from] = (byte) BoardState.EMPTY;
+        cellPiece[to] = (byte) piece;
+        pieceCell[piece] = to;
+        sideToMove ^= 1;
+    }
+
+    // Only a line through the destination of the mover can appear; only the
+    // holder of a line can break it again.
+    private void updateWinner(int colour, int toCell) {
+        if (winner == BoardState.EMPTY) {
+            if (hasLineThrough(colour, toCell)) {
+                winner = colour;
+            }
+        } else if (winner == colour) {
+            winner = findWinner();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < pieceCell.length; i++) {
+            joiner.add(getPieceType(i) + "(" + pieceCell[i] / getCols() + "," + pieceCell[i] % getCols() + ")");
+        }
+        return joiner.toString();
+    }
+
+}
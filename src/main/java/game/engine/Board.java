@@ -0,0 +1,80 @@
+package game.engine;
+
+import game.model.CircleDirection;
+import game.model.CircleType;
+
+/**
+ * A position of any variant with its move history. Cells are numbered
+ * {@code x * cols + y}; moves use the {@link Moves} encoding.
+ */
+public interface Board {
+
+    int getRows();
+
+    int getCols();
+
+    int getPieceCount();
+
+    int getPieceColour(int piece);
+
+    CircleType getPieceType(int piece);
+
+    int getPieceCell(int piece);
+
+    int getPieceAt(int cell);
+
+    boolean isEmpty(int cell);
+
+    /**
+     * The adjacent cell in the given direction, or {@link BoardState#EMPTY}
+     * off the board.
+     */
+    int getNeighbour(int cell, CircleDirection direction);
+
+    long getHash();
+
+    int getSideToMove();
+
+    int getMaxMoves();
+
+    boolean isValidMove(int piece, CircleDirection direction);
+
+    int generateMoves(int[] buffer);
+
+    int generateMoves(int colour, int[] buffer);
+
+    boolean hasLine(int colour);
+
+    int winner();
+
+    void makeMove(int move);
+
+    /**
+     * Takes back the last move.
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    void unmakeMove();
+
+    /**
+     * Replays the move taken back last and returns it.
+     *
+     * @throws IllegalStateException if there is no move to replay
+     */
+    int redoMove();
+
+    boolean canUndo();
+
+    boolean canRedo();
+
+    int getPly();
+
+    int getRepetitions();
+
+    boolean isRepetition();
+
+    int getLastMove();
+
+    Board copy();
+
+}
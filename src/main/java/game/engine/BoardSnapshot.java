@@ -0,0 +1,288 @@
+package game.engine;
+
+import game.model.CircleType;
+
+import java.util.Arrays;
+
+/**
+ * Immutable value copy of a position: where each piece stands, the side
+ * to move, the winner, the ply and the hash. Snapshots never change after
+ * construction, so any thread may hold and read one without locking.
+ * Classic boards with up to eight pieces are packed into a few primitive
+ * fields; other boards keep arrays, sharing the immutable piece types
+ * between consecutive snapshots of a game. Move history is not part of a
+ * snapshot.
+ */
+public abstract class BoardSnapshot {
+
+    private final int sideToMove;
+    private final int winner;
+    private final int ply;
+    private final int lastMove;
+    private final long hash;
+
+    private BoardSnapshot(Board board) {
+        sideToMove = board.getSideToMove();
+        winner = board.winner();
+        ply = board.getPly();
+        lastMove = board.getLastMove();
+        hash = board.getHash();
+    }
+
+    public static BoardSnapshot of(Board board) {
+        if (board instanceof BoardState && board.getPieceCount() <= Packed.MAX_PIECES) {
+            return new Packed(board);
+        }
+        var types = new CircleType[board.getPieceCount()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = board.getPieceType(i);
+        }
+        var rules = board instanceof GenericBoardState generic ? generic.getRules() : null;
+        return new Unpacked(board.getRows(), board.getCols(), rules, types, board);
+    }
+
+    /**
+     * A snapshot of the same game after the board has changed.
+     */
+    public abstract BoardSnapshot next(Board board);
+
+    public abstract int getRows();
+
+    public abstract int getCols();
+
+    public abstract int getPieceCount();
+
+    public abstract CircleType getPieceType(int piece);
+
+    public abstract int getPieceCell(int piece);
+
+    public abstract int getPieceAt(int cell);
+
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    public int winner() {
+        return winner;
+    }
+
+    public int getPly() {
+        return ply;
+    }
+
+    public int getLastMove() {
+        return lastMove;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * A new board in this position, without the history before it, for
+     * analysis on any thread.
+     */
+    public abstract Board toBoard();
+
+    private static int[] pieceCells(BoardSnapshot snapshot) {
+        var cells = new int[snapshot.getPieceCount()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = snapshot.getPieceCell(i);
+        }
+        return cells;
+    }
+
+    private static boolean samePosition(BoardSnapshot a, BoardSnapshot b) {
+        return a.hash == b.hash && a.sideToMove == b.sideToMove;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hash);
+    }
+
+    @Override
+    public String toString() {
+        var builder = new StringBuilder("[");
+        for (int i = 0; i < getPieceCount(); i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            int cell = getPieceCell(i);
+            builder.append(getPieceType(i)).append('(').append(cell / getCols()).append(',').append(cell % getCols()).append(')');
+        }
+        return builder.append(']').toString();
+    }
+
+    // Piece i's cell in bits 5i of cells, the piece on cell c in bits 3c of
+    // cellPieces when bit c of occupied is set, blue pieces as bits of blue.
+    private static final class Packed extends BoardSnapshot {
+
+        static final int MAX_PIECES = 8;
+
+        private final int pieceCount;
+        private final int blue;
+        private final int occupied;
+        private final long cells;
+        private final long cellPieces;
+
+        Packed(Board board) {
+            super(board);
+            pieceCount = board.getPieceCount();
+            int blue = 0;
+            int occupied = 0;
+            long cells = 0;
+            long cellPieces = 0;
+            for (int i = 0; i < pieceCount; i++) {
+                int cell = board.getPieceCell(i);
+                blue |= board.getPieceColour(i) << i;
+                occupied |= 1 << cell;
+                cells |= (long) cell << 5 * i;
+                cellPieces |= (long) i << 3 * cell;
+            }
+            this.blue = blue;
+            this.occupied = occupied;
+            this.cells = cells;
+            this.cellPieces = cellPieces;
+        }
+
+        @Override
+        public BoardSnapshot next(Board board) {
+            if (board.getPieceCount() != pieceCount) {
+                throw new IllegalArgumentException();
+            }
+            return new Packed(board);
+        }
+
+        @Override
+        public int getRows() {
+            return BoardState.ROWS;
+        }
+
+        @Override
+        public int getCols() {
+            return BoardState.COLS;
+        }
+
+        @Override
+        public int getPieceCount() {
+            return pieceCount;
+        }
+
+        @Override
+        public CircleType getPieceType(int piece) {
+            return (blue >>> piece & 1) == 0 ? CircleType.RED : CircleType.BLUE;
+        }
+
+        @Override
+        public int getPieceCell(int piece) {
+            return (int) (cells >>> 5 * piece) & 0x1F;
+        }
+
+        @Override
+        public int getPieceAt(int cell) {
+            return (occupied >>> cell & 1) == 0 ? BoardState.EMPTY : (int) (cellPieces >>> 3 * cell) & 7;
+        }
+
+        @Override
+        public Board toBoard() {
+            var types = new CircleType[pieceCount];
+            for (int i = 0; i < pieceCount; i++) {
+                types[i] = getPieceType(i);
+            }
+            return new BoardState(types, pieceCells(this), getSideToMove());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (!(obj instanceof Packed that)) return false;
+            return samePosition(this, that) && pieceCount == that.pieceCount
+                    && blue == that.blue && cells == that.cells;
+        }
+
+    }
+
+    private static final class Unpacked extends BoardSnapshot {
+
+        private final int rows;
+        private final int cols;
+        // Set for boards other than the classic one, to rebuild them.
+        private final Rules rules;
+        private final CircleType[] types;
+        private final byte[] cells;
+        private final byte[] cellPieces;
+
+        Unpacked(int rows, int cols, Rules rules, CircleType[] types, Board board) {
+            super(board);
+            this.rows = rows;
+            this.cols = cols;
+            this.rules = rules;
+            this.types = types;
+            cells = new byte[board.getPieceCount()];
+            cellPieces = new byte[rows * cols];
+            Arrays.fill(cellPieces, (byte) BoardState.EMPTY);
+            for (int i = 0; i < cells.length; i++) {
+                int cell = board.getPieceCell(i);
+                cells[i] = (byte) cell;
+                cellPieces[cell] = (byte) i;
+            }
+        }
+
+        @Override
+        public BoardSnapshot next(Board board) {
+            if (board.getPieceCount() != types.length) {
+                throw new IllegalArgumentException();
+            }
+            return new Unpacked(rows, cols, rules, types, board);
+        }
+
+        @Override
+        public int getRows() {
+            return rows;
+        }
+
+        @Override
+        public int getCols() {
+            return cols;
+        }
+
+        @Override
+        public int getPieceCount() {
+            return cells.length;
+        }
+
+        @Override
+        public CircleType getPieceType(int piece) {
+            return types[piece];
+        }
+
+        @Override
+        public int getPieceCell(int piece) {
+            return cells[piece] & 0xFF;
+        }
+
+        @Override
+        public int getPieceAt(int cell) {
+            return cellPieces[cell];
+        }
+
+        @Override
+        public Board toBoard() {
+            if (rules == null) {
+                return new BoardState(types, pieceCells(this), getSideToMove());
+            }
+            return new GenericBoardState(rules, pieceCells(this), getSideToMove());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (!(obj instanceof Unpacked that)) return false;
+            return samePosition(this, that) && rows == that.rows && cols == that.cols
+                    && Arrays.equals(types, that.types) && Arrays.equals(cells, that.cells);
+        }
+
+    }
+
+}
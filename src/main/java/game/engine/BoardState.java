@@ -0,0 +1,213 @@
+package game.engine;
+
+import game.model.CircleDirection;
+import game.model.CircleType;
+
+/**
+ * Bitboard representation of the classic board: one {@code int} mask per
+ * colour, cell {@code x * COLS + y}, plus the side to move. Plain Java
+ * only, so it can be used without JavaFX on the classpath. Other variants
+ * use {@link GenericBoardState}.
+ */
+public final class BoardState extends AbstractBoard {
+
+    public static final int ROWS = 5;
+    public static final int COLS = 4;
+    public static final int CELLS = ROWS * COLS;
+
+    public static final int RED = 0;
+    public static final int BLUE = 1;
+
+    public static final int EMPTY = -1;
+
+    public static final int DIRECTIONS = CircleDirection.values().length;
+
+    private static final int[] NEIGHBOURS = createNeighbours();
+    private static final int[] NEIGHBOUR_MASKS = createNeighbourMasks();
+
+    private final int[] masks = new int[2];
+
+    public BoardState(CircleType[] types, int[] cells) {
+        this(types, cells, RED);
+    }
+
+    public BoardState(CircleType[] types, int[] cells, int sideToMove) {
+        super(types.length, CELLS, sideToMove);
+        if (types.length != cells.length || types.length > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException();
+        }
+        for (int i = 0; i < types.length; i++) {
+            place(i, types[i].ordinal(), cells[i]);
+            masks[pieceColour[i]] |= 1 << cells[i];
+        }
+        winner = findWinner();
+        hash = Zobrist.hash(this);
+    }
+
+    public static BoardState createDefault() {
+        return (BoardState) Rules.CLASSIC.createBoard();
+    }
+
+    public BoardState(BoardState other) {
+        super(other);
+        masks[RED] = other.masks[RED];
+        masks[BLUE] = other.masks[BLUE];
+    }
+
+    @Override
+    public BoardState copy() {
+        return new BoardState(this);
+    }
+
+    private static int[] createNeighbours() {
+        var neighbours = new int[CELLS * DIRECTIONS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            for (var direction : CircleDirection.values()) {
+                int x = rowOf(cell) + direction.getRowChange();
+                int y = colOf(cell) + direction.getColChange();
+                neighbours[cell * DIRECTIONS + direction.ordinal()] = isOnBoard(x, y) ? cellOf(x, y) : EMPTY;
+            }
+        }
+        return neighbours;
+    }
+
+    private static int[] createNeighbourMasks() {
+        var masks = new int[CELLS];
+        for (int i = 0; i < NEIGHBOURS.length; i++) {
+            if (NEIGHBOURS[i] != EMPTY) {
+                masks[i / DIRECTIONS] |= 1 << NEIGHBOURS[i];
+            }
+        }
+        return masks;
+    }
+
+    public static int neighbour(int cell, CircleDirection direction) {
+        return NEIGHBOURS[cell * DIRECTIONS + direction.ordinal()];
+    }
+
+    public static int neighbourMask(int cell) {
+        return NEIGHBOUR_MASKS[cell];
+    }
+
+    public static int cellOf(int x, int y) {
+        return x * COLS + y;
+    }
+
+    public static int rowOf(int cell) {
+        return cell / COLS;
+    }
+
+    public static int colOf(int cell) {
+        return cell % COLS;
+    }
+
+    public static boolean isOnBoard(int x, int y) {
+        return 0 <= x && x < ROWS && 0 <= y && y < COLS;
+    }
+
+    @Override
+    public int getRows() {
+        return ROWS;
+    }
+
+    @Override
+    public int getCols() {
+        return COLS;
+    }
+
+    @Override
+    public int getNeighbour(int cell, CircleDirection direction) {
+        return neighbour(cell, direction);
+    }
+
+    @Override
+    public boolean isEmpty(int cell) {
+        return ((masks[RED] | masks[BLUE]) & (1 << cell)) == 0;
+    }
+
+    public int getMask(int colour) {
+        return masks[colour];
+    }
+
+    public int getOccupied() {
+        return masks[RED] | masks[BLUE];
+    }
+
+    public long getCanonicalHash() {
+        return getSymmetricHash(getCanonicalTransform());
+    }
+
+    // Scrambles the exact key of the position seen through a transform, so
+    // the low bits used as table indexes are spread out. The mix is
+    // bijective, so distinct positions never share a hash.
+    public long getSymmetricHash(int transform) {
+        long z = getSymmetricKey(transform);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // The transform whose key is smallest; equivalent positions agree on
+    // the key they pick, so it identifies the symmetry class. Computed
+    // from the masks on demand rather than kept up to date on every move.
+    public int getCanonicalTransform() {
+        int best = 0;
+        long bestKey = getSymmetricKey(0);
+        for (int transform = 1; transform < Symmetry.COUNT; transform++) {
+            long key = getSymmetricKey(transform);
+            if (key < bestKey) {
+                best = transform;
+                bestKey = key;
+            }
+        }
+        return best;
+    }
+
+    // Red mask, blue mask and side to move after the transform, packed
+    // into 41 bits.
+    private long getSymmetricKey(int transform) {
+        int swap = Symmetry.swapsColours(transform) ? 1 : 0;
+        long red = Symmetry.mapMask(transform, masks[RED ^ swap]);
+        long blue = Symmetry.mapMask(transform, masks[BLUE ^ swap]);
+        return red | blue << CELLS | (long) (sideToMove ^ swap) << 2 * CELLS;
+    }
+
+    @Override
+    public int generateMoves(int colour, int[] buffer) {
+        int free = ~(masks[RED] | masks[BLUE]);
+        int count = 0;
+        for (int pieces = masks[colour]; pieces != 0; pieces &= pieces - 1) {
+            int from = Integer.numberOfTrailingZeros(pieces);
+            int piece = cellPiece[from];
+            for (int targets = NEIGHBOUR_MASKS[from] & free; targets != 0; targets &= targets - 1) {
+                buffer[count++] = Moves.encode(piece, from, Integer.numberOfTrailingZeros(targets));
+            }
+        }
+        return count;
+    }
+
+    public boolean hasThreeInARow(int colour) {
+        return WinLines.containsLine(masks[colour]);
+    }
+
+    @Override
+    public boolean hasLine(int colour) {
+        return hasThreeInARow(colour);
+    }
+
+    @Override
+    boolean hasLineThrough(int colour, int cell) {
+        return WinLines.containsLineThrough(masks[colour], cell);
+    }
+
+    public void move(int piece, int toCell) {
+        makeMove(Moves.encode(piece, pieceCell[piece], toCell));
+    }
+
+    @Override
+    void toggle(int colour, int from, int to) {
+        masks[colour] ^= (1 << from) | (1 << to);
+        hash ^= Zobrist.pieceKey(colour, from) ^ Zobrist.pieceKey(colour, to) ^ Zobrist.sideKey();
+    }
+
+}
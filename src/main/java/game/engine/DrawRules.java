@@ -0,0 +1,34 @@
+package game.engine;
+
+/**
+ * When an undecided game is declared drawn: after the same position occurs
+ * for the n-th time, or after a fixed number of plies.
+ */
+public final class DrawRules {
+
+    public static final DrawRules DEFAULT = new DrawRules(3, 200);
+
+    private final int repetitions;
+    private final int maxPlies;
+
+    public DrawRules(int repetitions, int maxPlies) {
+        if (repetitions < 2 || maxPlies < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.repetitions = repetitions;
+        this.maxPlies = maxPlies;
+    }
+
+    public int getRepetitions() {
+        return repetitions;
+    }
+
+    public int getMaxPlies() {
+        return maxPlies;
+    }
+
+    public boolean isDraw(Board state) {
+        return state.getPly() >= maxPlies || state.getRepetitions() + 1 >= repetitions;
+    }
+
+}
@@ -0,0 +1,28 @@
+package game.engine;
+
+public enum GameStatus {
+    ONGOING,
+    RED_WINS,
+    BLUE_WINS,
+    DRAW;
+
+    public boolean isOver() {
+        return this != ONGOING;
+    }
+
+    public static GameStatus winnerOf(int colour) {
+        return colour == BoardState.RED ? RED_WINS : BLUE_WINS;
+    }
+
+    // A side that cannot move loses, as in the search.
+    public static GameStatus of(Board state, DrawRules rules, int[] moveBuffer) {
+        if (state.winner() != BoardState.EMPTY) {
+            return winnerOf(state.winner());
+        }
+        if (state.generateMoves(moveBuffer) == 0) {
+            return winnerOf(state.getSideToMove() ^ 1);
+        }
+        return rules.isDraw(state) ? DRAW : ONGOING;
+    }
+
+}
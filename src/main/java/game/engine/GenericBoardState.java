@@ -0,0 +1,151 @@
+package game.engine;
+
+import game.model.CircleDirection;
+
+/**
+ * Board of any variant up to {@link Rules#MAX_CELLS} cells: one multi-word
+ * {@code long} bitboard per colour, win lines from {@link Rules}. Move
+ * history, hashing and winner tracking are shared with {@link BoardState}
+ * through {@link AbstractBoard}.
+ */
+public final class GenericBoardState extends AbstractBoard {
+
+    private final Rules rules;
+    private final int words;
+    // Colour-major: the words of RED, then those of BLUE.
+    private final long[] masks;
+
+    public GenericBoardState(Rules rules) {
+        this(rules, startCells(rules), BoardState.RED);
+    }
+
+    /**
+     * The pieces of the rules' layout placed on the given cells instead.
+     */
+    public GenericBoardState(Rules rules, int[] cells, int sideToMove) {
+        super(rules.getPieceCount(), rules.getCells(), sideToMove);
+        if (cells.length != rules.getPieceCount()) {
+            throw new IllegalArgumentException();
+        }
+        this.rules = rules;
+        words = rules.words();
+        masks = new long[2 * words];
+        if (sideToMove == BoardState.BLUE) {
+            hash = rules.sideKey();
+        }
+        for (int i = 0; i < cells.length; i++) {
+            int colour = rules.getPieceType(i).ordinal();
+            int cell = cells[i];
+            place(i, colour, cell);
+            masks[colour * words + (cell >>> 6)] |= 1L << cell;
+            hash ^= rules.pieceKey(colour, cell);
+        }
+        winner = findWinner();
+    }
+
+    private static int[] startCells(Rules rules) {
+        var cells = new int[rules.getPieceCount()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = rules.getPieceCell(i);
+        }
+        return cells;
+    }
+
+    private GenericBoardState(GenericBoardState other) {
+        super(other);
+        rules = other.rules;
+        words = other.words;
+        masks = other.masks.clone();
+    }
+
+    @Override
+    public GenericBoardState copy() {
+        return new GenericBoardState(this);
+    }
+
+    public Rules getRules() {
+        return rules;
+    }
+
+    @Override
+    public int getRows() {
+        return rules.getRows();
+    }
+
+    @Override
+    public int getCols() {
+        return rules.getCols();
+    }
+
+    @Override
+    public boolean isEmpty(int cell) {
+        return cellPiece[cell] == BoardState.EMPTY;
+    }
+
+    @Override
+    public int getNeighbour(int cell, CircleDirection direction) {
+        return rules.neighbour(cell, direction.ordinal());
+    }
+
+    @Override
+    public int generateMoves(int colour, int[] buffer) {
+        int count = 0;
+        for (int piece = 0; piece < pieceCell.length; piece++) {
+            if (pieceColour[piece] != colour) {
+                continue;
+            }
+            int from = pieceCell[piece];
+            for (int direction = 0; direction < BoardState.DIRECTIONS; direction++) {
+                int to = rules.neighbour(from, direction);
+                if (to != BoardState.EMPTY && cellPiece[to] == BoardState.EMPTY) {
+                    buffer[count++] = Moves.encode(piece, from, to);
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public boolean hasLine(int colour) {
+        for (int line = 0; line < rules.getLineCount(); line++) {
+            if (ownsLine(colour, line)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Like WinLines, word by word: the colour owns the line if its masks
+    // cover the line's mask in each word the line touches.
+    private boolean ownsLine(int colour, int line) {
+        int[] cells = rules.lineCells();
+        long[] lines = rules.lineMasks();
+        int length = rules.getLineLength();
+        int last = cells[(line + 1) * length - 1] >>> 6;
+        for (int word = cells[line * length] >>> 6; word <= last; word++) {
+            long bits = lines[line * words + word];
+            if ((masks[colour * words + word] & bits) != bits) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    boolean hasLineThrough(int colour, int cell) {
+        for (int line : rules.linesThrough(cell)) {
+            if (ownsLine(colour, line)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    void toggle(int colour, int from, int to) {
+        masks[colour * words + (from >>> 6)] ^= 1L << from;
+        masks[colour * words + (to >>> 6)] ^= 1L << to;
+        hash ^= rules.pieceKey(colour, from) ^ rules.pieceKey(colour, to) ^ rules.sideKey();
+    }
+
+}
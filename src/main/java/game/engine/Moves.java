@@ -0,0 +1,48 @@
+package game.engine;
+
+/**
+ * Packed {@code int} move encoding: piece in bits 0-7, from-cell in bits
+ * 8-15, to-cell in bits 16-23.
+ */
+public final class Moves {
+
+    public static final int NONE = -1;
+
+    private Moves() {
+    }
+
+    public static int encode(int piece, int from, int to) {
+        return piece | from << 8 | to << 16;
+    }
+
+    public static int piece(int move) {
+        return move & 0xFF;
+    }
+
+    public static int from(int move) {
+        return move >>> 8 & 0xFF;
+    }
+
+    public static int to(int move) {
+        return move >>> 16 & 0xFF;
+    }
+
+    /**
+     * The move with cells as coordinates on the classic board.
+     */
+    public static String toString(int move) {
+        return toString(move, BoardState.COLS);
+    }
+
+    /**
+     * The move with cells as coordinates on a board {@code cols} wide.
+     */
+    public static String toString(int move, int cols) {
+        if (move == NONE) {
+            return "none";
+        }
+        return String.format("%d:(%d,%d)->(%d,%d)", piece(move),
+                from(move) / cols, from(move) % cols, to(move) / cols, to(move) % cols);
+    }
+
+}
@@ -0,0 +1,234 @@
+package game.engine;
+
+import game.model.CircleDirection;
+import game.model.CircleType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A variant of the game: board size, line length needed to win and start
+ * layout. Win lines, neighbour tables and hash keys are derived here once
+ * and shared by every board of the variant.
+ */
+public final class Rules {
+
+    // Moves pack cells and pieces into a byte each.
+    public static final int MAX_CELLS = 256;
+
+    private static final CircleDirection[] DIRECTIONS = CircleDirection.values();
+
+    private static final int[][] LINE_DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    public static final Rules CLASSIC = of(5, 4, 4, 3);
+
+    private final int rows;
+    private final int cols;
+    private final int lineLength;
+    private final CircleType[] types;
+    private final int[] cells;
+
+    private final int[] neighbours;
+    // Cells of line i are lineCells[i * lineLength ...].
+    private final int[] lineCells;
+    private final int[][] linesThrough;
+    // Line i as a cell mask, one long per word: lineMasks[i * words ...].
+    private final int words;
+    private final long[] lineMasks;
+    private final long[] pieceKeys;
+    private final long sideKey;
+
+    public Rules(int rows, int cols, int lineLength, CircleType[] types, int[] cells) {
+        if (rows < 1 || cols < 1 || rows * cols > MAX_CELLS || lineLength < 2
+                || lineLength > Math.max(rows, cols) || types.length != cells.length || types.length > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException();
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.lineLength = lineLength;
+        this.types = types.clone();
+        this.cells = cells.clone();
+        var occupied = new boolean[rows * cols];
+        for (int cell : cells) {
+            if (cell < 0 || cell >= occupied.length || occupied[cell]) {
+                throw new IllegalArgumentException();
+            }
+            occupied[cell] = true;
+        }
+        neighbours = createNeighbours();
+        lineCells = createLines();
+        linesThrough = createLinesThrough();
+        words = (rows * cols + 63) >>> 6;
+        lineMasks = createLineMasks();
+        var random = new SplittableRandom(0x5A0B_2154L ^ (long) rows << 32 ^ cols);
+        pieceKeys = random.longs(2L * rows * cols).toArray();
+        sideKey = random.nextLong();
+    }
+
+    /**
+     * The classic layout scaled up: each side's pieces alternate in colour
+     * along the first rows from the top and from the bottom.
+     */
+    public static Rules of(int rows, int cols, int piecesPerSide, int lineLength) {
+        if (piecesPerSide < 1 || 2 * piecesPerSide > rows * cols) {
+            throw new IllegalArgumentException();
+        }
+        var types = new CircleType[2 * piecesPerSide];
+        var cells = new int[2 * piecesPerSide];
+        for (int i = 0; i < piecesPerSide; i++) {
+            int bottom = (rows - 1 - i / cols) * cols + i % cols;
+            types[i] = i % 2 == 0 ? CircleType.BLUE : CircleType.RED;
+            cells[i] = i;
+            types[piecesPerSide + i] = i % 2 == 0 ? CircleType.RED : CircleType.BLUE;
+            cells[piecesPerSide + i] = bottom;
+        }
+        return new Rules(rows, cols, lineLength, types, cells);
+    }
+
+    private int[] createNeighbours() {
+        var result = new int[rows * cols * DIRECTIONS.length];
+        for (int cell = 0; cell < rows * cols; cell++) {
+            for (var direction : DIRECTIONS) {
+                int x = cell / cols + direction.getRowChange();
+                int y = cell % cols + direction.getColChange();
+                result[cell * DIRECTIONS.length + direction.ordinal()] = isOnBoard(x, y) ? x * cols + y : BoardState.EMPTY;
+            }
+        }
+        return result;
+    }
+
+    private int[] createLines() {
+        List<Integer> result = new ArrayList<>();
+        for (int cell = 0; cell < rows * cols; cell++) {
+            for (var direction : LINE_DIRECTIONS) {
+                int endX = cell / cols + direction[0] * (lineLength - 1);
+                int endY = cell % cols + direction[1] * (lineLength - 1);
+                if (isOnBoard(endX, endY)) {
+                    for (int i = 0; i < lineLength; i++) {
+                        result.add((cell / cols + direction[0] * i) * cols + cell % cols + direction[1] * i);
+                    }
+                }
+            }
+        }
+        return result.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private int[][] createLinesThrough() {
+        var result = new int[rows * cols][];
+        var counts = new int[rows * cols];
+        for (int cell : lineCells) {
+            counts[cell]++;
+        }
+        for (int cell = 0; cell < result.length; cell++) {
+            result[cell] = new int[counts[cell]];
+            counts[cell] = 0;
+        }
+        for (int i = 0; i < lineCells.length; i++) {
+            int cell = lineCells[i];
+            result[cell][counts[cell]++] = i / lineLength;
+        }
+        return result;
+    }
+
+    private long[] createLineMasks() {
+        var result = new long[getLineCount() * words];
+        for (int i = 0; i < lineCells.length; i++) {
+            int cell = lineCells[i];
+            result[i / lineLength * words + (cell >>> 6)] |= 1L << cell;
+        }
+        return result;
+    }
+
+    public boolean isOnBoard(int x, int y) {
+        return 0 <= x && x < rows && 0 <= y && y < cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getCells() {
+        return rows * cols;
+    }
+
+    public int getLineLength() {
+        return lineLength;
+    }
+
+    public int getPieceCount() {
+        return types.length;
+    }
+
+    public CircleType getPieceType(int piece) {
+        return types[piece];
+    }
+
+    public int getPieceCell(int piece) {
+        return cells[piece];
+    }
+
+    public int getLineCount() {
+        return lineCells.length / lineLength;
+    }
+
+    /**
+     * The cells of a win line, in order along the line.
+     */
+    public int[] getLine(int index) {
+        return Arrays.copyOfRange(lineCells, index * lineLength, (index + 1) * lineLength);
+    }
+
+    int neighbour(int cell, int direction) {
+        return neighbours[cell * DIRECTIONS.length + direction];
+    }
+
+    // Cells along a line only increase, so a line's words run from that of
+    // its first cell to that of its last.
+    int[] lineCells() {
+        return lineCells;
+    }
+
+    int words() {
+        return words;
+    }
+
+    long[] lineMasks() {
+        return lineMasks;
+    }
+
+    int[] linesThrough(int cell) {
+        return linesThrough[cell];
+    }
+
+    long pieceKey(int colour, int cell) {
+        return pieceKeys[colour * rows * cols + cell];
+    }
+
+    long sideKey() {
+        return sideKey;
+    }
+
+    /**
+     * Whether the variant is played on the classic board, which has its own
+     * faster representation and the search, symmetries and tablebase.
+     */
+    public boolean isClassicBoard() {
+        return rows == CLASSIC.rows && cols == CLASSIC.cols && lineLength == CLASSIC.lineLength;
+    }
+
+    public Board createBoard() {
+        return isClassicBoard() ? new BoardState(types, cells) : new GenericBoardState(this);
+    }
+
+    @Override
+    public String toString() {
+        return rows + "x" + cols + ", " + types.length / 2 + " pieces per side, " + lineLength + " in a row";
+    }
+
+}
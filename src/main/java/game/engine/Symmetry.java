@@ -0,0 +1,80 @@
+package game.engine;
+
+/**
+ * The eight symmetries of the board: mirroring the columns (bit 0), the
+ * rows (bit 1), or both (a half turn), each with or without swapping the
+ * colours together with the side to move (bit 2). Every transform is its
+ * own inverse.
+ */
+public final class Symmetry {
+
+    public static final int COUNT = 8;
+    public static final int GEOMETRIC = 4;
+    public static final int SWAP_COLOURS = 4;
+
+    private static final int HALF = BoardState.CELLS / 2;
+
+    private static final int[][] CELL_MAP = createCellMap();
+    private static final int[][][] MASK_MAP = createMaskMap();
+
+    private Symmetry() {
+    }
+
+    private static int[][] createCellMap() {
+        var map = new int[GEOMETRIC][BoardState.CELLS];
+        for (int transform = 0; transform < GEOMETRIC; transform++) {
+            for (int cell = 0; cell < BoardState.CELLS; cell++) {
+                int x = BoardState.rowOf(cell);
+                int y = BoardState.colOf(cell);
+                if ((transform & 1) != 0) {
+                    y = BoardState.COLS - 1 - y;
+                }
+                if ((transform & 2) != 0) {
+                    x = BoardState.ROWS - 1 - x;
+                }
+                map[transform][cell] = BoardState.cellOf(x, y);
+            }
+        }
+        return map;
+    }
+
+    // Masks are mapped in two halves of ten cells through 1024-entry tables.
+    private static int[][][] createMaskMap() {
+        var map = new int[GEOMETRIC][2][1 << HALF];
+        for (int transform = 0; transform < GEOMETRIC; transform++) {
+            for (int half = 0; half < 2; half++) {
+                for (int bits = 0; bits < 1 << HALF; bits++) {
+                    int mapped = 0;
+                    for (int rest = bits; rest != 0; rest &= rest - 1) {
+                        int cell = Integer.numberOfTrailingZeros(rest) + half * HALF;
+                        mapped |= 1 << CELL_MAP[transform][cell];
+                    }
+                    map[transform][half][bits] = mapped;
+                }
+            }
+        }
+        return map;
+    }
+
+    public static boolean swapsColours(int transform) {
+        return (transform & SWAP_COLOURS) != 0;
+    }
+
+    public static int mapCell(int transform, int cell) {
+        return CELL_MAP[transform & (GEOMETRIC - 1)][cell];
+    }
+
+    public static int mapMask(int transform, int mask) {
+        int[][] map = MASK_MAP[transform & (GEOMETRIC - 1)];
+        return map[0][mask & ((1 << HALF) - 1)] | map[1][mask >>> HALF];
+    }
+
+    /**
+     * Maps the from/to cells of a packed move; the piece number is not
+     * preserved and is left zero.
+     */
+    public static int mapMove(int transform, int move) {
+        return Moves.encode(0, mapCell(transform, Moves.from(move)), mapCell(transform, Moves.to(move)));
+    }
+
+}
@@ -0,0 +1,66 @@
+package game.engine;
+
+import java.util.Arrays;
+
+/**
+ * The win lines of the classic board from {@link Rules#CLASSIC}, as cell
+ * masks for {@link BoardState}.
+ */
+public final class WinLines {
+
+    public static final int LENGTH = 3;
+
+    private static final int[] LINES = createLines();
+
+    private static final int[][] LINES_THROUGH = createLinesThrough();
+
+    private WinLines() {
+    }
+
+    private static int[] createLines() {
+        var rules = Rules.CLASSIC;
+        var lines = new int[rules.getLineCount()];
+        for (int i = 0; i < lines.length; i++) {
+            for (int cell : rules.getLine(i)) {
+                lines[i] |= 1 << cell;
+            }
+        }
+        return lines;
+    }
+
+    private static int[][] createLinesThrough() {
+        var linesThrough = new int[BoardState.CELLS][];
+        for (int cell = 0; cell < BoardState.CELLS; cell++) {
+            int bit = 1 << cell;
+            linesThrough[cell] = Arrays.stream(LINES).filter(line -> (line & bit) != 0).toArray();
+        }
+        return linesThrough;
+    }
+
+    public static int getLineCount() {
+        return LINES.length;
+    }
+
+    public static int getLine(int index) {
+        return LINES[index];
+    }
+
+    public static boolean containsLine(int mask) {
+        for (int line : LINES) {
+            if ((mask & line) == line) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean containsLineThrough(int mask, int cell) {
+        for (int line : LINES_THROUGH[cell]) {
+            if ((mask & line) == line) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,44 @@
+package game.engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random 64-bit keys per colour and cell for hashing positions.
+ */
+public final class Zobrist {
+
+    private static final long[][] PIECE_KEYS = new long[2][BoardState.CELLS];
+    private static final long SIDE_KEY;
+
+    static {
+        var random = new SplittableRandom(0x5A0B_2154L);
+        for (var keys : PIECE_KEYS) {
+            for (int cell = 0; cell < keys.length; cell++) {
+                keys[cell] = random.nextLong();
+            }
+        }
+        SIDE_KEY = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long pieceKey(int colour, int cell) {
+        return PIECE_KEYS[colour][cell];
+    }
+
+    public static long sideKey() {
+        return SIDE_KEY;
+    }
+
+    public static long hash(BoardState state) {
+        long hash = state.getSideToMove() == BoardState.BLUE ? SIDE_KEY : 0;
+        for (int colour = BoardState.RED; colour <= BoardState.BLUE; colour++) {
+            for (int mask = state.getMask(colour); mask != 0; mask &= mask - 1) {
+                hash ^= PIECE_KEYS[colour][Integer.numberOfTrailingZeros(mask)];
+            }
+        }
+        return hash;
+    }
+
+}
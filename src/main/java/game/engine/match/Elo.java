@@ -0,0 +1,63 @@
+package game.engine.match;
+
+/**
+ * Elo difference estimated from a win/draw/loss count, with a 95% interval
+ * from the normal approximation of the per-game score.
+ */
+public final class Elo {
+
+    private static final double Z_95 = 1.959964;
+
+    private final double difference;
+    private final double lower;
+    private final double upper;
+
+    private Elo(double difference, double lower, double upper) {
+        this.difference = difference;
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    public static Elo of(int wins, int draws, int losses) {
+        int games = wins + draws + losses;
+        if (games == 0) {
+            return new Elo(0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+        }
+        double score = (wins + 0.5 * draws) / games;
+        double variance = (wins * square(1 - score) + draws * square(0.5 - score) + losses * square(score)) / games;
+        double margin = Z_95 * Math.sqrt(variance / games);
+        return new Elo(difference(score), difference(score - margin), difference(score + margin));
+    }
+
+    private static double difference(double score) {
+        if (score <= 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        if (score >= 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    private static double square(double x) {
+        return x * x;
+    }
+
+    public double getDifference() {
+        return difference;
+    }
+
+    public double getLower() {
+        return lower;
+    }
+
+    public double getUpper() {
+        return upper;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%+.1f [%+.1f, %+.1f]", difference, lower, upper);
+    }
+
+}
@@ -0,0 +1,69 @@
+package game.engine.match;
+
+import game.engine.BoardState;
+import game.engine.GameStatus;
+
+/**
+ * The outcome of one game between two entrants, identified by their index
+ * in the tournament, with the time each move took.
+ */
+public final class GameResult {
+
+    private final int red;
+    private final int blue;
+    private final GameStatus status;
+    private final int[] moves;
+    private final long[] moveNanos;
+    private final int openingPlies;
+
+    public GameResult(int red, int blue, GameStatus status, int[] moves, long[] moveNanos, int openingPlies) {
+        this.red = red;
+        this.blue = blue;
+        this.status = status;
+        this.moves = moves;
+        this.moveNanos = moveNanos;
+        this.openingPlies = openingPlies;
+    }
+
+    public int getRed() {
+        return red;
+    }
+
+    public int getBlue() {
+        return blue;
+    }
+
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * All moves of the game, the random opening included.
+     */
+    public int[] getMoves() {
+        return moves;
+    }
+
+    /**
+     * Thinking time of each engine move, i.e. of the moves after the opening.
+     */
+    public long[] getMoveNanos() {
+        return moveNanos;
+    }
+
+    public int getOpeningPlies() {
+        return openingPlies;
+    }
+
+    /**
+     * Score of the given entrant in half points: 2 for a win, 1 for a draw.
+     */
+    public int halfPointsOf(int entrant) {
+        if (status == GameStatus.DRAW) {
+            return 1;
+        }
+        int colour = entrant == red ? BoardState.RED : BoardState.BLUE;
+        return status == GameStatus.winnerOf(colour) ? 2 : 0;
+    }
+
+}
@@ -0,0 +1,81 @@
+package game.engine.match;
+
+import game.engine.BoardState;
+import game.engine.DrawRules;
+import game.engine.GameStatus;
+import game.engine.Moves;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Plays a single game between two players from a random opening.
+ */
+public final class Match {
+
+    private final DrawRules drawRules;
+    private final int[] moveBuffer = new int[BoardState.createDefault().getMaxMoves()];
+
+    public Match(DrawRules drawRules) {
+        this.drawRules = drawRules;
+    }
+
+    /**
+     * Plays the given number of random plies from the start position,
+     * retrying until the opening leaves the game undecided.
+     */
+    public BoardState opening(int plies, long seed) {
+        var random = new SplittableRandom(seed);
+        while (true) {
+            var state = BoardState.createDefault();
+            for (int i = 0; i < plies && status(state) == GameStatus.ONGOING; i++) {
+                state.makeMove(moveBuffer[random.nextInt(state.generateMoves(moveBuffer))]);
+            }
+            if (status(state) == GameStatus.ONGOING) {
+                return state;
+            }
+        }
+    }
+
+    public GameResult play(BoardState opening, int redIndex, Player red, int blueIndex, Player blue) {
+        var state = new BoardState(opening);
+        int openingPlies = state.getPly();
+        red.newGame();
+        blue.newGame();
+        long[] nanos = new long[drawRules.getMaxPlies()];
+        int timed = 0;
+        GameStatus status;
+        while ((status = status(state)) == GameStatus.ONGOING) {
+            var player = state.getSideToMove() == BoardState.RED ? red : blue;
+            long start = System.nanoTime();
+            int move = player.selectMove(state);
+            long elapsed = System.nanoTime() - start;
+            if (move == Moves.NONE) {
+                // Resigning: the engine found no move to play.
+                status = GameStatus.winnerOf(state.getSideToMove() ^ 1);
+                break;
+            }
+            if (timed == nanos.length) {
+                nanos = Arrays.copyOf(nanos, timed * 2);
+            }
+            nanos[timed++] = elapsed;
+            state.makeMove(move);
+        }
+        return new GameResult(redIndex, blueIndex, status, movesOf(state), Arrays.copyOf(nanos, timed), openingPlies);
+    }
+
+    private GameStatus status(BoardState state) {
+        return GameStatus.of(state, drawRules, moveBuffer);
+    }
+
+    private static int[] movesOf(BoardState state) {
+        var replay = new BoardState(state);
+        int[] moves = new int[replay.getPly()];
+        for (int i = moves.length - 1; i >= 0; i--) {
+            moves[i] = replay.getLastMove();
+            replay.unmakeMove();
+        }
+        return moves;
+    }
+
+}
@@ -0,0 +1,20 @@
+package game.engine.match;
+
+import game.engine.BoardState;
+
+/**
+ * An engine configuration taking part in a match. A player is used by one
+ * thread at a time and may keep state, such as a hash table, across games.
+ */
+public interface Player extends AutoCloseable {
+
+    int selectMove(BoardState state);
+
+    default void newGame() {
+    }
+
+    @Override
+    default void close() {
+    }
+
+}
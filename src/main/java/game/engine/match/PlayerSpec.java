@@ -0,0 +1,125 @@
+package game.engine.match;
+
+import game.engine.BoardState;
+import game.engine.search.AlphaBetaSearch;
+import game.engine.search.MonteCarloSearch;
+import game.engine.search.PlayoutPolicy;
+import game.engine.search.TranspositionTable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * A player configuration parsed from {@code kind[:option=value]...}, e.g.
+ * {@code alphabeta:depth=4}, {@code alphabeta:time=20:hash=18},
+ * {@code mcts:time=20:policy=random} or {@code random}. Each worker thread
+ * creates its own players from the same spec.
+ */
+public final class PlayerSpec {
+
+    private static final long UNLIMITED_MILLIS = 3_600_000;
+
+    private final String name;
+    private final String kind;
+    private final Map<String, String> options = new HashMap<>();
+
+    private PlayerSpec(String name) {
+        this.name = name;
+        var parts = name.split(":");
+        kind = parts[0];
+        for (int i = 1; i < parts.length; i++) {
+            int eq = parts[i].indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Option without value in " + name);
+            }
+            options.put(parts[i].substring(0, eq), parts[i].substring(eq + 1));
+        }
+    }
+
+    public static PlayerSpec parse(String spec) {
+        var parsed = new PlayerSpec(spec);
+        switch (parsed.kind) {
+            case "alphabeta", "mcts", "random" -> {
+            }
+            default -> throw new IllegalArgumentException("Unknown player kind: " + parsed.kind);
+        }
+        return parsed;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Player create(long seed) {
+        return switch (kind) {
+            case "alphabeta" -> alphaBeta();
+            case "mcts" -> monteCarlo();
+            default -> random(seed);
+        };
+    }
+
+    private Player alphaBeta() {
+        var table = new TranspositionTable(intOption("hash", 18));
+        var search = new AlphaBetaSearch(table);
+        int depth = intOption("depth", 0);
+        if (depth > 0) {
+            search.setMaxDepth(depth);
+        }
+        long millis = longOption("time", depth > 0 ? UNLIMITED_MILLIS : 100);
+        return new Player() {
+            @Override
+            public int selectMove(BoardState state) {
+                return search.search(state, millis).move();
+            }
+
+            @Override
+            public void newGame() {
+                table.clear();
+            }
+        };
+    }
+
+    private Player monteCarlo() {
+        var policy = switch (options.getOrDefault("policy", "winning")) {
+            case "random" -> PlayoutPolicy.RANDOM;
+            case "winning" -> PlayoutPolicy.WINNING_MOVE;
+            default -> throw new IllegalArgumentException("Unknown playout policy in " + name);
+        };
+        var search = new MonteCarloSearch(intOption("threads", 1), policy);
+        long millis = longOption("time", 100);
+        return new Player() {
+            @Override
+            public int selectMove(BoardState state) {
+                return search.search(state, millis).move();
+            }
+
+            @Override
+            public void close() {
+                search.close();
+            }
+        };
+    }
+
+    private static Player random(long seed) {
+        var random = new SplittableRandom(seed);
+        var moves = new int[BoardState.createDefault().getMaxMoves()];
+        return state -> moves[random.nextInt(state.generateMoves(moves))];
+    }
+
+    private int intOption(String key, int defaultValue) {
+        var value = options.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private long longOption(String key, long defaultValue) {
+        var value = options.get(key);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
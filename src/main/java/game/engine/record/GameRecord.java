@@ -0,0 +1,149 @@
+package game.engine.record;
+
+import game.engine.BoardState;
+import game.engine.GameStatus;
+import game.engine.Moves;
+import game.model.CircleDirection;
+import game.model.CircleType;
+
+/**
+ * One finished game: the start position, who played it, the result and
+ * the moves, each packed into a byte as piece index and
+ * {@link CircleDirection} ordinal.
+ */
+public final class GameRecord {
+
+    public static final int MAX_PIECES = 32;
+
+    private static final CircleDirection[] DIRECTIONS = CircleDirection.values();
+
+    private final CircleType[] types;
+    private final int[] cells;
+    private final GameStatus status;
+    private final long timestamp;
+    private final String red;
+    private final String blue;
+    private final int openingPlies;
+    private final byte[] moves;
+
+    GameRecord(CircleType[] types, int[] cells, GameStatus status, long timestamp,
+               String red, String blue, int openingPlies, byte[] moves) {
+        this.types = types;
+        this.cells = cells;
+        this.status = status;
+        this.timestamp = timestamp;
+        this.red = red;
+        this.blue = blue;
+        this.openingPlies = openingPlies;
+        this.moves = moves;
+    }
+
+    /**
+     * Records the game that led to the given state from its first ply.
+     *
+     * @param openingPlies leading moves not chosen by the players, e.g. a
+     *                     random opening
+     */
+    public static GameRecord of(BoardState state, GameStatus status, String red, String blue,
+                                int openingPlies, long timestamp) {
+        if (state.getPieceCount() > MAX_PIECES) {
+            throw new IllegalArgumentException();
+        }
+        var start = new BoardState(state);
+        var moves = new byte[start.getPly()];
+        for (int i = moves.length - 1; i >= 0; i--) {
+            moves[i] = encode(start.getLastMove());
+            start.unmakeMove();
+        }
+        var types = new CircleType[start.getPieceCount()];
+        var cells = new int[types.length];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = start.getPieceType(i);
+            cells[i] = start.getPieceCell(i);
+        }
+        return new GameRecord(types, cells, status, timestamp, red, blue, openingPlies, moves);
+    }
+
+    static byte encode(int move) {
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        var direction = CircleDirection.of(BoardState.rowOf(to) - BoardState.rowOf(from),
+                BoardState.colOf(to) - BoardState.colOf(from));
+        return (byte) (Moves.piece(move) << 3 | direction.ordinal());
+    }
+
+    public BoardState createStartState() {
+        return new BoardState(types, cells);
+    }
+
+    public int getPieceCount() {
+        return types.length;
+    }
+
+    CircleType getPieceType(int piece) {
+        return types[piece];
+    }
+
+    int getPieceCell(int piece) {
+        return cells[piece];
+    }
+
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getRed() {
+        return red;
+    }
+
+    public String getBlue() {
+        return blue;
+    }
+
+    public int getOpeningPlies() {
+        return openingPlies;
+    }
+
+    public int getMoveCount() {
+        return moves.length;
+    }
+
+    byte[] getMoveBytes() {
+        return moves;
+    }
+
+    public int getPiece(int ply) {
+        return (moves[ply] & 0xFF) >>> 3;
+    }
+
+    public CircleDirection getDirection(int ply) {
+        return DIRECTIONS[moves[ply] & 0x7];
+    }
+
+    public void forEachMove(MoveConsumer consumer) {
+        for (int ply = 0; ply < moves.length; ply++) {
+            consumer.accept(getPiece(ply), getDirection(ply));
+        }
+    }
+
+    /**
+     * Plays the game on a fresh board and returns the final position.
+     */
+    public BoardState replay() {
+        var state = createStartState();
+        forEachMove((piece, direction) -> state.move(piece, BoardState.neighbour(state.getPieceCell(piece), direction)));
+        return state;
+    }
+
+    @FunctionalInterface
+    public interface MoveConsumer {
+
+        void accept(int piece, CircleDirection direction);
+
+    }
+
+}
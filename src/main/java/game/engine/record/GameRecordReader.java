@@ -0,0 +1,75 @@
+package game.engine.record;
+
+import game.engine.GameStatus;
+import game.model.CircleType;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads a game-record file one game at a time, so archives of any size
+ * can be replayed in constant memory. See {@link GameRecordWriter} for the
+ * format.
+ */
+public final class GameRecordReader implements AutoCloseable {
+
+    private static final CircleType[] TYPES = CircleType.values();
+    private static final GameStatus[] STATUSES = GameStatus.values();
+
+    private final DataInputStream in;
+
+    public GameRecordReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+        if (this.in.readLong() != GameRecordWriter.MAGIC) {
+            throw new IOException("Not a game-record file");
+        }
+        int version = this.in.readInt();
+        if (version != GameRecordWriter.VERSION) {
+            throw new IOException("Unsupported game-record version " + version);
+        }
+    }
+
+    public static GameRecordReader open(Path path) throws IOException {
+        return new GameRecordReader(Files.newInputStream(path));
+    }
+
+    /**
+     * The next game, or {@code null} at the end of the file.
+     */
+    public GameRecord read() throws IOException {
+        int pieces = in.read();
+        if (pieces < 0) {
+            return null;
+        }
+        try {
+            var types = new CircleType[pieces];
+            var cells = new int[pieces];
+            for (int i = 0; i < pieces; i++) {
+                int packed = in.readUnsignedByte();
+                types[i] = TYPES[packed >>> 7];
+                cells[i] = packed & 0x7F;
+            }
+            var status = STATUSES[in.readUnsignedByte()];
+            long timestamp = in.readLong();
+            var red = in.readUTF();
+            var blue = in.readUTF();
+            int openingPlies = in.readUnsignedShort();
+            var moves = new byte[in.readInt()];
+            in.readFully(moves);
+            return new GameRecord(types, cells, status, timestamp, red, blue, openingPlies, moves);
+        } catch (EOFException e) {
+            throw new IOException("Truncated game record", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+}
@@ -0,0 +1,75 @@
+package game.engine.record;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends games to a game-record file, big-endian:
+ * <pre>
+ * header  magic "BG54GR\0\0", version (12 bytes, once per file)
+ * game    piece count, per piece colour &lt;&lt; 7 | cell (1 byte each),
+ *         result (GameStatus ordinal), timestamp, red and blue names
+ *         (modified UTF-8), opening plies (2 bytes), move count (4 bytes),
+ *         moves (1 byte each: piece &lt;&lt; 3 | direction ordinal)
+ * </pre>
+ * Games are only ever appended, so a file can be extended by later runs
+ * and read while it grows. A writer may be shared between threads.
+ */
+public final class GameRecordWriter implements AutoCloseable {
+
+    static final long MAGIC = 0x4247_3534_4752_0000L;
+    static final int VERSION = 1;
+
+    private final DataOutputStream out;
+
+    private GameRecordWriter(DataOutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Opens the file for appending, creating it with a header if it is
+     * missing or empty.
+     */
+    public static GameRecordWriter open(Path path) throws IOException {
+        boolean fresh = !Files.exists(path) || Files.size(path) == 0;
+        if (!fresh) {
+            // Fails unless the header is a game-record header of this version.
+            GameRecordReader.open(path).close();
+        }
+        var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)));
+        if (fresh) {
+            out.writeLong(MAGIC);
+            out.writeInt(VERSION);
+        }
+        return new GameRecordWriter(out);
+    }
+
+    public synchronized void write(GameRecord record) throws IOException {
+        out.writeByte(record.getPieceCount());
+        for (int i = 0; i < record.getPieceCount(); i++) {
+            out.writeByte(record.getPieceType(i).ordinal() << 7 | record.getPieceCell(i));
+        }
+        out.writeByte(record.getStatus().ordinal());
+        out.writeLong(record.getTimestamp());
+        out.writeUTF(record.getRed());
+        out.writeUTF(record.getBlue());
+        out.writeShort(record.getOpeningPlies());
+        out.writeInt(record.getMoveCount());
+        out.write(record.getMoveBytes());
+    }
+
+    public synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+}
@@ -0,0 +1,331 @@
+package game.engine.search;
+
+import game.engine.BoardState;
+import game.engine.DrawRules;
+import game.engine.Moves;
+import game.engine.Symmetry;
+import game.engine.tablebase.CanonicalIndex;
+import game.engine.tablebase.PositionIndex;
+import game.engine.tablebase.Tablebase;
+
+import java.util.Arrays;
+
+/**
+ * Negamax alpha-beta with iterative deepening under a time budget, a
+ * transposition table keyed by the position's symmetry class, and
+ * killer/history move ordering.
+ */
+public final class AlphaBetaSearch implements MoveSearch {
+
+    public static final int WIN = 10_000;
+    public static final int MAX_PLY = 64;
+
+    private static final int TT_MOVE_SCORE = 1 << 30;
+    private static final int KILLER_SCORE = 1 << 29;
+
+    private final TranspositionTable table;
+
+    private final int[][] moves = new int[MAX_PLY][];
+    private final int[][] moveScores = new int[MAX_PLY][];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[] history = new int[BoardState.CELLS * BoardState.CELLS];
+
+    private DrawRules drawRules = DrawRules.DEFAULT;
+    private Tablebase tablebase;
+    private int maxDepth = MAX_PLY - 1;
+    private int startDepth = 1;
+    private int depthStep = 1;
+    private volatile long deadline;
+    private boolean stopped;
+    private volatile boolean abort;
+    private long nodes;
+
+    public AlphaBetaSearch() {
+        this(new TranspositionTable(20));
+    }
+
+    public AlphaBetaSearch(TranspositionTable table) {
+        this.table = table;
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        if (maxDepth < 1 || maxDepth >= MAX_PLY) {
+            throw new IllegalArgumentException();
+        }
+        this.maxDepth = maxDepth;
+    }
+
+    public void setDrawRules(DrawRules drawRules) {
+        this.drawRules = drawRules;
+    }
+
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    public void setStartDepth(int startDepth) {
+        if (startDepth < 1 || startDepth >= MAX_PLY) {
+            throw new IllegalArgumentException();
+        }
+        this.startDepth = startDepth;
+    }
+
+    /**
+     * Searches every {@code step}-th depth only, so Lazy SMP helpers with
+     * different steps and start depths work on different iterations.
+     */
+    public void setDepthStep(int depthStep) {
+        if (depthStep < 1 || depthStep >= MAX_PLY) {
+            throw new IllegalArgumentException();
+        }
+        this.depthStep = depthStep;
+    }
+
+    @Override
+    public void stop() {
+        abort = true;
+    }
+
+    @Override
+    public void setDeadline(long deadlineNanos) {
+        deadline = deadlineNanos;
+    }
+
+    @Override
+    public void prepare(long deadlineNanos) {
+        abort = false;
+        deadline = deadlineNanos;
+    }
+
+    public static boolean isWinScore(int score) {
+        return Math.abs(score) >= WIN - MAX_PLY;
+    }
+
+    @Override
+    public SearchResult search(BoardState root, long millis) {
+        prepare(System.nanoTime() + millis * 1_000_000);
+        return run(root);
+    }
+
+    // Uses the deadline and stop flag as they are, so a search set up with
+    // prepare() and handed to another thread can be stopped or given a new
+    // deadline even before it starts.
+    @Override
+    public SearchResult run(BoardState root) {
+        var state = new BoardState(root);
+        stopped = abort;
+        nodes = 0;
+        ensureBuffers(state.getMaxMoves());
+        for (var killer : killers) {
+            killer[0] = killer[1] = Moves.NONE;
+        }
+        Arrays.fill(history, 0);
+
+        int count = state.generateMoves(moves[0]);
+        if (count == 0 || state.winner() != BoardState.EMPTY) {
+            return new SearchResult(Moves.NONE, -WIN, 0, 0);
+        }
+        var best = new SearchResult(moves[0][0], 0, 0, 0);
+        for (int depth = Math.min(startDepth, maxDepth); depth <= maxDepth; depth += depthStep) {
+            int bestMove = Moves.NONE;
+            int alpha = -WIN - 1;
+            count = state.generateMoves(moves[0]);
+            scoreMoves(state, 0, count, best.move());
+            for (int i = 0; i < count; i++) {
+                int move = nextMove(0, i, count);
+                state.makeMove(move);
+                int score = -negamax(state, depth - 1, -WIN - 1, -alpha, 1);
+                state.unmakeMove();
+                if (stopped) {
+                    break;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    bestMove = move;
+                }
+            }
+            if (stopped) {
+                break;
+            }
+            best = new SearchResult(bestMove, alpha, depth, nodes);
+            int transform = state.getCanonicalTransform();
+            table.store(state.getSymmetricHash(transform), toCanonical(transform, bestMove), alpha, depth,
+                    TranspositionTable.EXACT);
+            if (isWinScore(alpha)) {
+                break;
+            }
+        }
+        return new SearchResult(best.move(), best.score(), best.depth(), nodes);
+    }
+
+    private int negamax(BoardState state, int depth, int alpha, int beta, int ply) {
+        if (state.winner() != BoardState.EMPTY) {
+            return -(WIN - ply);
+        }
+        // Any repetition inside the tree is scored as a draw: the side that
+        // could avoid it would otherwise have done so.
+        if (state.isRepetition() || state.getPly() >= drawRules.getMaxPlies()) {
+            return 0;
+        }
+        if (tablebase != null && PositionIndex.isIndexable(state)) {
+            int index = CanonicalIndex.indexOf(state);
+            int value = tablebase.getValue(index);
+            if (value != Tablebase.UNKNOWN) {
+                return tablebaseScore(value, tablebase.getDistance(index));
+            }
+        }
+        if (depth == 0 || ply == MAX_PLY - 1) {
+            return Evaluator.evaluate(state);
+        }
+        if ((++nodes & 1023) == 0 && (abort || System.nanoTime() > deadline)) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+
+        int transform = state.getCanonicalTransform();
+        long key = state.getSymmetricHash(transform);
+        long entry = table.probe(key);
+        int ttMove = Moves.NONE;
+        if (entry != TranspositionTable.MISS) {
+            ttMove = fromCanonical(state, transform, TranspositionTable.move(entry));
+            if (TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || bound == TranspositionTable.LOWER && score >= beta
+                        || bound == TranspositionTable.UPPER && score <= alpha) {
+                    return score;
+                }
+            }
+        }
+
+        int count = state.generateMoves(moves[ply]);
+        if (count == 0) {
+            return -(WIN - ply);
+        }
+        scoreMoves(state, ply, count, ttMove);
+        int originalAlpha = alpha;
+        int bestScore = -WIN - 1;
+        int bestMove = Moves.NONE;
+        for (int i = 0; i < count; i++) {
+            int move = nextMove(ply, i, count);
+            state.makeMove(move);
+            int score = -negamax(state, depth - 1, -beta, -alpha, ply + 1);
+            state.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        storeCutoff(ply, move, depth);
+                        break;
+                    }
+                }
+            }
+        }
+        int bound = bestScore >= beta ? TranspositionTable.LOWER
+                : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, toCanonical(transform, bestMove), toTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    // The table is keyed on the symmetry class, so its moves are kept in the
+    // frame of the canonical transform and mapped back on the way out.
+    @Override
+    public int getTableMove(BoardState state) {
+        int transform = state.getCanonicalTransform();
+        long entry = table.probe(state.getSymmetricHash(transform));
+        return entry == TranspositionTable.MISS ? Moves.NONE
+                : fromCanonical(state, transform, TranspositionTable.move(entry));
+    }
+
+    private static int toCanonical(int transform, int move) {
+        return move == Moves.NONE ? Moves.NONE : Symmetry.mapMove(transform, move);
+    }
+
+    private static int fromCanonical(BoardState state, int transform, int move) {
+        if (move == Moves.NONE) {
+            return Moves.NONE;
+        }
+        int from = Symmetry.mapCell(transform, Moves.from(move));
+        int piece = state.getPieceAt(from);
+        return piece == BoardState.EMPTY ? Moves.NONE
+                : Moves.encode(piece, from, Symmetry.mapCell(transform, Moves.to(move)));
+    }
+
+    private void storeCutoff(int ply, int move, int depth) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        history[Moves.from(move) * BoardState.CELLS + Moves.to(move)] += depth * depth;
+    }
+
+    private void scoreMoves(BoardState state, int ply, int count, int ttMove) {
+        int[] buffer = moves[ply];
+        int[] scores = moveScores[ply];
+        for (int i = 0; i < count; i++) {
+            int move = buffer[i];
+            if (move == ttMove) {
+                scores[i] = TT_MOVE_SCORE;
+            } else if (move == killers[ply][0] || move == killers[ply][1]) {
+                scores[i] = KILLER_SCORE;
+            } else {
+                scores[i] = history[Moves.from(move) * BoardState.CELLS + Moves.to(move)];
+            }
+        }
+    }
+
+    // Selection sort step: moves the best remaining move to index i.
+    private int nextMove(int ply, int i, int count) {
+        int[] buffer = moves[ply];
+        int[] scores = moveScores[ply];
+        int best = i;
+        for (int j = i + 1; j < count; j++) {
+            if (scores[j] > scores[best]) {
+                best = j;
+            }
+        }
+        int move = buffer[best];
+        buffer[best] = buffer[i];
+        buffer[i] = move;
+        int score = scores[best];
+        scores[best] = scores[i];
+        scores[i] = score;
+        return move;
+    }
+
+    private void ensureBuffers(int maxMoves) {
+        if (moves[0] == null || moves[0].length < maxMoves) {
+            for (int ply = 0; ply < MAX_PLY; ply++) {
+                moves[ply] = new int[maxMoves];
+                moveScores[ply] = new int[maxMoves];
+            }
+        }
+    }
+
+    // Below the mate range so the table never adjusts them by ply, but far
+    // above any evaluation; shorter wins and longer losses still score higher.
+    private static int tablebaseScore(int value, int distance) {
+        return switch (value) {
+            case Tablebase.WIN -> WIN - MAX_PLY - 1 - distance;
+            case Tablebase.LOSS -> -(WIN - MAX_PLY - 1 - distance);
+            default -> 0;
+        };
+    }
+
+    private static int toTable(int score, int ply) {
+        return isWinScore(score) ? score + Integer.signum(score) * ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        return isWinScore(score) ? score - Integer.signum(score) * ply : score;
+    }
+
+}
@@ -0,0 +1,91 @@
+package game.engine.search;
+
+import game.engine.BoardState;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Drives a {@link Ponderer} from its own "engine" thread so callers such as
+ * the JavaFX application thread never block on a search. Positions are
+ * copied on the calling thread. Move searches run on the engine thread;
+ * pondering runs on the Ponderer's "ponder" thread and is started, stopped
+ * and converted into move searches from the engine thread. Cancelling a
+ * returned future stops the search.
+ */
+public final class AsyncEngine implements AutoCloseable {
+
+    private final Ponderer ponderer;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "engine");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile TimeControl timeControl = new TimeControl(100);
+
+    public AsyncEngine(MoveSearch search) {
+        ponderer = new Ponderer(search);
+    }
+
+    public void setTimeControl(TimeControl timeControl) {
+        this.timeControl = timeControl;
+    }
+
+    public TimeControl getTimeControl() {
+        return timeControl;
+    }
+
+    public CompletableFuture<SearchResult> requestMove(BoardState state) {
+        var position = new BoardState(state);
+        var future = new CompletableFuture<SearchResult>();
+        future.whenComplete((result, failure) -> {
+            if (future.isCancelled()) {
+                ponderer.getSearch().stop();
+            }
+        });
+        executor.execute(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            var control = timeControl;
+            long start = System.nanoTime();
+            try {
+                var result = ponderer.search(position, control.nextBudget(), future::isCancelled);
+                control.used((System.nanoTime() - start) / 1_000_000);
+                future.complete(result);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    public void ponder(BoardState afterOwnMove) {
+        var position = new BoardState(afterOwnMove);
+        executor.execute(() -> ponderer.ponder(position));
+    }
+
+    /**
+     * Runs a change to the search, e.g. a new tablebase, on the engine
+     * thread once pondering has stopped.
+     */
+    public void configure(Runnable change) {
+        executor.execute(() -> {
+            ponderer.stop();
+            change.run();
+        });
+    }
+
+    public void stopPondering() {
+        executor.execute(ponderer::stop);
+    }
+
+    @Override
+    public void close() {
+        executor.execute(ponderer::close);
+        executor.shutdown();
+    }
+
+}
@@ -0,0 +1,35 @@
+package game.engine.search;
+
+import game.engine.BoardState;
+import game.engine.WinLines;
+
+/**
+ * Static evaluation from the point of view of the side to move: open lines
+ * holding two of a colour count as threats, lines holding one as potential.
+ */
+public final class Evaluator {
+
+    private static final int THREAT = 30;
+    private static final int POTENTIAL = 2;
+
+    private Evaluator() {
+    }
+
+    public static int evaluate(BoardState state) {
+        int own = state.getMask(state.getSideToMove());
+        int opponent = state.getMask(state.getSideToMove() ^ 1);
+        int score = 0;
+        for (int i = 0; i < WinLines.getLineCount(); i++) {
+            int line = WinLines.getLine(i);
+            int ownCount = Integer.bitCount(line & own);
+            int opponentCount = Integer.bitCount(line & opponent);
+            if (opponentCount == 0) {
+                score += ownCount == 2 ? THREAT : ownCount * POTENTIAL;
+            } else if (ownCount == 0) {
+                score -= opponentCount == 2 ? THREAT : opponentCount * POTENTIAL;
+            }
+        }
+        return score;
+    }
+
+}
@@ -0,0 +1,335 @@
+package game.engine.search;
+
+import game.engine.BoardState;
+import game.engine.DrawRules;
+import game.engine.Moves;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Monte Carlo tree search with UCT selection and tree parallelism: all
+ * threads descend the same tree, node statistics are updated atomically,
+ * and a visit counted on the way down acts as a virtual loss until the
+ * playout result is added on the way back. Playouts run on a per-thread
+ * board with make/unmake and preallocated buffers, so they do not allocate.
+ */
+public final class MonteCarloSearch implements MoveSearch, AutoCloseable {
+
+    private static final double EXPLORATION = Math.sqrt(2);
+
+    // Scores are counted in half points: 2 for a win, 1 for a draw.
+    private static final int WIN_SCORE = 2;
+    private static final int DRAW_SCORE = 1;
+
+    private final PlayoutPolicy policy;
+    private final Worker[] workers;
+    private final ExecutorService executor;
+
+    private DrawRules drawRules = DrawRules.DEFAULT;
+
+    private volatile boolean abort;
+    private volatile long deadline;
+
+    // The tree of the last run, kept for getTableMove.
+    private BoardState lastRoot;
+    private Node lastTree;
+
+    public MonteCarloSearch(int threads) {
+        this(threads, PlayoutPolicy.WINNING_MOVE);
+    }
+
+    public MonteCarloSearch(int threads, PlayoutPolicy policy) {
+        if (threads < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.policy = policy;
+        workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(0x9E3779B9 * (i + 1));
+        }
+        executor = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            var thread = new Thread(runnable, "mcts-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void setDrawRules(DrawRules drawRules) {
+        this.drawRules = drawRules;
+    }
+
+    @Override
+    public void stop() {
+        abort = true;
+    }
+
+    @Override
+    public void setDeadline(long deadlineNanos) {
+        deadline = deadlineNanos;
+    }
+
+    @Override
+    public void prepare(long deadlineNanos) {
+        abort = false;
+        deadline = deadlineNanos;
+    }
+
+    @Override
+    public SearchResult search(BoardState root, long millis) {
+        prepare(System.nanoTime() + millis * 1_000_000);
+        return run(root);
+    }
+
+    // Like AlphaBetaSearch.run, leaves the stop flag alone, so a stop issued
+    // between prepare() and the start of the run is not lost.
+    @Override
+    public SearchResult run(BoardState root) {
+        var rootNode = new Node(Moves.NONE);
+        List<Future<?>> running = new ArrayList<>(workers.length - 1);
+        for (int i = 1; i < workers.length; i++) {
+            var worker = workers[i];
+            running.add(executor.submit(() -> worker.run(root, rootNode)));
+        }
+        workers[0].run(root, rootNode);
+        for (var future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        lastRoot = new BoardState(root);
+        lastTree = rootNode;
+
+        int depth = 0;
+        for (var worker : workers) {
+            depth = Math.max(depth, worker.maxDepth);
+        }
+        Node best = rootNode.mostVisited();
+        if (best == null) {
+            return new SearchResult(Moves.NONE, 0, depth, rootNode.visits);
+        }
+        int permille = best.visits == 0 ? 0 : (int) (best.score * 500 / best.visits);
+        return new SearchResult(best.move, permille, depth, rootNode.visits);
+    }
+
+    // The most visited reply in the last tree, if the position is its root
+    // or lies within two plies of it, as when pondering after our own move.
+    @Override
+    public int getTableMove(BoardState state) {
+        if (lastRoot == null) {
+            return Moves.NONE;
+        }
+        Node node = find(new BoardState(lastRoot), lastTree, state.getHash(), 2);
+        Node best = node == null ? null : node.mostVisited();
+        return best == null ? Moves.NONE : best.move;
+    }
+
+    private static Node find(BoardState board, Node node, long hash, int plies) {
+        if (board.getHash() == hash) {
+            return node;
+        }
+        Node[] children = node.children;
+        if (plies == 0 || children == null) {
+            return null;
+        }
+        for (var child : children) {
+            board.makeMove(child.move);
+            Node found = find(board, child, hash, plies - 1);
+            board.unmakeMove();
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private final class Worker {
+
+        private BoardState state;
+        private int[] moves;
+        private final Node[] path = new Node[AlphaBetaSearch.MAX_PLY * 4];
+        private int random;
+        private int maxDepth;
+
+        Worker(int seed) {
+            random = seed;
+        }
+
+        void run(BoardState root, Node rootNode) {
+            state = new BoardState(root);
+            maxDepth = 0;
+            if (moves == null || moves.length < state.getMaxMoves()) {
+                moves = new int[state.getMaxMoves()];
+            }
+            for (int iteration = 0; ! abort; iteration++) {
+                if ((iteration & 63) == 0 && System.nanoTime() > deadline) {
+                    break;
+                }
+                iterate(rootNode);
+            }
+        }
+
+        private void iterate(Node rootNode) {
+            int depth = 0;
+            Node node = rootNode;
+            node.addVisit();
+            path[depth++] = node;
+            while (node.children != null && node.children.length > 0 && depth < path.length
+                    && state.winner() == BoardState.EMPTY) {
+                node = select(node);
+                node.addVisit();
+                state.makeMove(node.move);
+                path[depth++] = node;
+            }
+            maxDepth = Math.max(maxDepth, depth - 1);
+            if (node.children == null && state.winner() == BoardState.EMPTY && node.visits > 1) {
+                node.expand(state, moves);
+            }
+            int result = playout();
+            // The result is for the side to move after the last node; each
+            // node is scored for the player who made the move leading to it.
+            for (int i = depth - 1; i >= 0; i--) {
+                boolean mover = ((depth - 1 - i) & 1) == 0;
+                int score = result == DRAW_SCORE ? DRAW_SCORE
+                        : (result == WIN_SCORE) != mover ? WIN_SCORE : 0;
+                path[i].addScore(score);
+                if (i > 0) {
+                    state.unmakeMove();
+                }
+            }
+        }
+
+        private Node select(Node node) {
+            Node[] children = node.children;
+            double logVisits = Math.log(Math.max(1, node.visits));
+            Node best = children[0];
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (var child : children) {
+                int visits = child.visits;
+                double value = visits == 0 ? Double.MAX_VALUE
+                        : child.score / (2.0 * visits) + EXPLORATION * Math.sqrt(logVisits / visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        // Plays to the end from the current node and restores the board.
+        // Returns the result for the side to move at the start.
+        private int playout() {
+            int side = state.getSideToMove();
+            int plies = 0;
+            int result;
+            while (true) {
+                int winner = state.winner();
+                if (winner != BoardState.EMPTY) {
+                    result = winner == side ? WIN_SCORE : 0;
+                    break;
+                }
+                if (state.getPly() >= drawRules.getMaxPlies()) {
+                    result = DRAW_SCORE;
+                    break;
+                }
+                int count = state.generateMoves(moves);
+                if (count == 0) {
+                    result = state.getSideToMove() == side ? 0 : WIN_SCORE;
+                    break;
+                }
+                state.makeMove(policy.select(state, moves, count, nextRandom()));
+                plies++;
+            }
+            for (int i = 0; i < plies; i++) {
+                state.unmakeMove();
+            }
+            return result;
+        }
+
+        private int nextRandom() {
+            random ^= random << 13;
+            random ^= random >>> 17;
+            random ^= random << 5;
+            return random;
+        }
+
+    }
+
+    private static final class Node {
+
+        private static final VarHandle VISITS;
+        private static final VarHandle SCORE;
+        private static final VarHandle CHILDREN;
+
+        static {
+            try {
+                var lookup = MethodHandles.lookup();
+                VISITS = lookup.findVarHandle(Node.class, "visits", int.class);
+                SCORE = lookup.findVarHandle(Node.class, "score", long.class);
+                CHILDREN = lookup.findVarHandle(Node.class, "children", Node[].class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private final int move;
+        private volatile int visits;
+        private volatile long score;
+        private volatile Node[] children;
+
+        Node(int move) {
+            this.move = move;
+        }
+
+        void addVisit() {
+            VISITS.getAndAdd(this, 1);
+        }
+
+        void addScore(int value) {
+            SCORE.getAndAdd(this, (long) value);
+        }
+
+        Node mostVisited() {
+            Node[] children = this.children;
+            if (children == null || children.length == 0) {
+                return null;
+            }
+            Node best = children[0];
+            for (var child : children) {
+                if (child.visits > best.visits) {
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        void expand(BoardState state, int[] moves) {
+            int count = state.generateMoves(moves);
+            var created = new Node[count];
+            for (int i = 0; i < count; i++) {
+                created[i] = new Node(moves[i]);
+            }
+            CHILDREN.compareAndSet(this, (Node[]) null, created);
+        }
+
+    }
+
+}
@@ -0,0 +1,29 @@
+package game.engine.search;
+
+import game.engine.BoardState;
+
+/**
+ * A time-limited search that can also be set up on one thread and run,
+ * re-timed or stopped from another.
+ */
+public interface MoveSearch {
+
+    SearchResult search(BoardState root, long millis);
+
+    /**
+     * Clears a previous stop and sets the deadline for the next {@link #run}.
+     */
+    void prepare(long deadlineNanos);
+
+    SearchResult run(BoardState root);
+
+    void setDeadline(long deadlineNanos);
+
+    void stop();
+
+    /**
+     * The best move stored for the position, or {@code Moves.NONE}.
+     */
+    int getTableMove(BoardState state);
+
+}
@@ -0,0 +1,149 @@
+package game.engine.search;
+
+import game.engine.BoardState;
+import game.engine.DrawRules;
+import game.engine.tablebase.Tablebase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Lazy SMP: every thread runs its own iterative deepening search on the same
+ * root, sharing one lock-free {@link TranspositionTable}. Helpers start at
+ * staggered depths and every other one skips alternate depths, so they fill
+ * the table ahead of the main thread instead of repeating its iterations;
+ * the result of the main thread is the one played. A single thread runs
+ * without a pool.
+ */
+public final class ParallelSearch implements MoveSearch, AutoCloseable {
+
+    private final TranspositionTable table;
+    private final AlphaBetaSearch main;
+    private final AlphaBetaSearch[] helpers;
+    private final ExecutorService executor;
+
+    public ParallelSearch(int threads) {
+        this(threads, new TranspositionTable(22));
+    }
+
+    public ParallelSearch(int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.table = table;
+        main = new AlphaBetaSearch(table);
+        helpers = new AlphaBetaSearch[threads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new AlphaBetaSearch(table);
+            helpers[i].setStartDepth(2 + i % 3);
+            helpers[i].setDepthStep(1 + i % 2);
+        }
+        executor = helpers.length == 0 ? null : Executors.newFixedThreadPool(helpers.length, runnable -> {
+            var thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getThreads() {
+        return helpers.length + 1;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        main.setMaxDepth(maxDepth);
+        for (var helper : helpers) {
+            helper.setMaxDepth(maxDepth);
+        }
+    }
+
+    public void setDrawRules(DrawRules drawRules) {
+        main.setDrawRules(drawRules);
+        for (var helper : helpers) {
+            helper.setDrawRules(drawRules);
+        }
+    }
+
+    public void setTablebase(Tablebase tablebase) {
+        main.setTablebase(tablebase);
+        for (var helper : helpers) {
+            helper.setTablebase(tablebase);
+        }
+    }
+
+    @Override
+    public SearchResult search(BoardState root, long millis) {
+        prepare(System.nanoTime() + millis * 1_000_000);
+        return run(root);
+    }
+
+    @Override
+    public void prepare(long deadlineNanos) {
+        main.prepare(deadlineNanos);
+        for (var helper : helpers) {
+            helper.prepare(deadlineNanos);
+        }
+    }
+
+    @Override
+    public SearchResult run(BoardState root) {
+        if (executor == null) {
+            return main.run(root);
+        }
+        List<Future<SearchResult>> running = new ArrayList<>(helpers.length);
+        for (var helper : helpers) {
+            running.add(executor.submit(() -> helper.run(root)));
+        }
+        var result = main.run(root);
+        long nodes = result.nodes();
+        for (var helper : helpers) {
+            helper.stop();
+        }
+        for (var future : running) {
+            try {
+                nodes += future.get().nodes();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        return new SearchResult(result.move(), result.score(), result.depth(), nodes);
+    }
+
+    @Override
+    public void setDeadline(long deadlineNanos) {
+        main.setDeadline(deadlineNanos);
+        for (var helper : helpers) {
+            helper.setDeadline(deadlineNanos);
+        }
+    }
+
+    @Override
+    public void stop() {
+        main.stop();
+        for (var helper : helpers) {
+            helper.stop();
+        }
+    }
+
+    @Override
+    public int getTableMove(BoardState state) {
+        return main.getTableMove(state);
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+}
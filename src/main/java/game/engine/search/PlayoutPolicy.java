@@ -0,0 +1,33 @@
+package game.engine.search;
+
+import game.engine.BoardState;
+import game.engine.Moves;
+import game.engine.WinLines;
+
+/**
+ * Picks the next move of a Monte Carlo playout. Implementations must not
+ * allocate: they are called once per ply of every playout.
+ */
+public interface PlayoutPolicy {
+
+    PlayoutPolicy RANDOM = (state, moves, count, random) -> moves[Integer.remainderUnsigned(random, count)];
+
+    /**
+     * Plays an immediately winning move when there is one, otherwise a
+     * random move.
+     */
+    PlayoutPolicy WINNING_MOVE = (state, moves, count, random) -> {
+        int own = state.getMask(state.getSideToMove());
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int after = own ^ (1 << Moves.from(move)) ^ (1 << Moves.to(move));
+            if (WinLines.containsLineThrough(after, Moves.to(move))) {
+                return move;
+            }
+        }
+        return moves[Integer.remainderUnsigned(random, count)];
+    };
+
+    int select(BoardState state, int[] moves, int count, int random);
+
+}
@@ -0,0 +1,111 @@
+package game.engine.search;
+
+import game.engine.BoardState;
+import game.engine.Moves;
+import org.tinylog.Logger;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Keeps a {@link MoveSearch} busy during the opponent's turn. After
+ * our move the expected reply is taken from the transposition table and the
+ * resulting position is searched without a time limit. If the opponent
+ * plays that reply, the running search just gets a deadline; otherwise it
+ * is stopped and a fresh search starts on the warm table.
+ */
+public final class Ponderer implements AutoCloseable {
+
+    private final MoveSearch search;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "ponder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Future<SearchResult> pondering;
+    private long predictedHash;
+    private long ponderStart;
+
+    public Ponderer(MoveSearch search) {
+        this.search = search;
+    }
+
+    public MoveSearch getSearch() {
+        return search;
+    }
+
+    public boolean isPondering() {
+        return pondering != null;
+    }
+
+    public void ponder(BoardState afterOwnMove) {
+        stop();
+        int reply = search.getTableMove(afterOwnMove);
+        if (reply == Moves.NONE || afterOwnMove.winner() != BoardState.EMPTY) {
+            return;
+        }
+        var predicted = new BoardState(afterOwnMove);
+        predicted.makeMove(reply);
+        if (predicted.winner() != BoardState.EMPTY) {
+            return;
+        }
+        predictedHash = predicted.getHash();
+        ponderStart = System.nanoTime();
+        search.prepare(Long.MAX_VALUE);
+        pondering = executor.submit(() -> search.run(predicted));
+    }
+
+    public SearchResult search(BoardState state, long millis) {
+        return search(state, millis, () -> false);
+    }
+
+    // The search is prepared before cancelled is checked, so a stop() from
+    // another thread that races with the set-up is not cleared by prepare().
+    public SearchResult search(BoardState state, long millis, BooleanSupplier cancelled) {
+        if (pondering != null) {
+            if (state.getHash() == predictedHash) {
+                // Time spent pondering counts towards the budget.
+                search.setDeadline(Math.max(ponderStart + millis * 1_000_000, System.nanoTime()));
+                var result = await();
+                Logger.debug("Ponder hit: {}", result);
+                return result;
+            }
+            stop();
+        }
+        search.prepare(System.nanoTime() + millis * 1_000_000);
+        if (cancelled.getAsBoolean()) {
+            search.stop();
+        }
+        return search.run(state);
+    }
+
+    public void stop() {
+        if (pondering != null) {
+            search.stop();
+            await();
+        }
+    }
+
+    private SearchResult await() {
+        try {
+            return pondering.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pondering = null;
+        }
+    }
+
+    public void close() {
+        stop();
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,39 @@
+package game.engine.search;
+
+import game.engine.Moves;
+
+public final class SearchResult {
+
+    private final int move;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+
+    public SearchResult(int move, int score, int depth, long nodes) {
+        this.move = move;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+    }
+
+    public int move() {
+        return move;
+    }
+
+    public int score() {
+        return score;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public long nodes() {
+        return nodes;
+    }
+
+    public String toString() {
+        return String.format("%s score=%d depth=%d nodes=%d", Moves.toString(move), score, depth, nodes);
+    }
+
+}
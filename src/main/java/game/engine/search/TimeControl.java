@@ -0,0 +1,52 @@
+package game.engine.search;
+
+/**
+ * Thinking time of one player: a cap per move and, optionally, a budget
+ * for the whole game that is spread over the expected remaining moves.
+ */
+public final class TimeControl {
+
+    private static final int MOVES_TO_GO = 20;
+
+    private final long moveMillis;
+    private final long gameMillis;
+    private long remainingMillis;
+
+    public TimeControl(long moveMillis) {
+        this(moveMillis, 0);
+    }
+
+    /**
+     * @param gameMillis total time for the game, or {@code 0} for no limit
+     */
+    public TimeControl(long moveMillis, long gameMillis) {
+        if (moveMillis < 1 || gameMillis < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.moveMillis = moveMillis;
+        this.gameMillis = gameMillis;
+        remainingMillis = gameMillis;
+    }
+
+    public synchronized long nextBudget() {
+        if (gameMillis == 0) {
+            return moveMillis;
+        }
+        return Math.max(1, Math.min(moveMillis, remainingMillis / MOVES_TO_GO));
+    }
+
+    public synchronized void used(long millis) {
+        if (gameMillis != 0) {
+            remainingMillis = Math.max(0, remainingMillis - millis);
+        }
+    }
+
+    public synchronized long getRemainingMillis() {
+        return gameMillis == 0 ? Long.MAX_VALUE : remainingMillis;
+    }
+
+    public synchronized void reset() {
+        remainingMillis = gameMillis;
+    }
+
+}
@@ -0,0 +1,71 @@
+package game.engine.search;
+
+import game.engine.Moves;
+
+import java.util.Arrays;
+
+/**
+ * Fixed size, always-replace hash table of search results, safe to share
+ * between search threads without locks. Each entry is two adjacent words of
+ * one preallocated {@code long[]}: the data word packing move, score, depth
+ * and bound, and the key XOR-ed with the data. A torn entry written by two
+ * threads at once fails the key check and reads as a miss.
+ */
+public final class TranspositionTable {
+
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;
+    public static final int UPPER = 3;
+
+    public static final long MISS = 0;
+
+    private final long[] entries;
+    private final int mask;
+
+    public TranspositionTable(int bits) {
+        if (bits < 1 || bits > 29) {
+            throw new IllegalArgumentException();
+        }
+        entries = new long[2 << bits];
+        mask = (1 << bits) - 1;
+    }
+
+    public long probe(long key) {
+        int index = ((int) key & mask) << 1;
+        long data = entries[index + 1];
+        return (entries[index] ^ data) == key ? data : MISS;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = ((int) key & mask) << 1;
+        long data = pack(move, score, depth, bound);
+        entries[index] = key ^ data;
+        entries[index + 1] = data;
+    }
+
+    public void clear() {
+        Arrays.fill(entries, 0);
+    }
+
+    static long pack(int move, int score, int depth, int bound) {
+        return (move & 0xFFFFFFL) | (long) (score & 0xFFFF) << 24 | (long) depth << 40 | (long) bound << 48;
+    }
+
+    public static int move(long entry) {
+        int move = (int) (entry & 0xFFFFFF);
+        return move == 0xFFFFFF ? Moves.NONE : move;
+    }
+
+    public static int score(long entry) {
+        return (short) (entry >>> 24);
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 40) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 48) & 0x3;
+    }
+
+}
@@ -0,0 +1,37 @@
+package game.engine.tablebase;
+
+/**
+ * Heap-resident tablebase, as produced by the {@link RetrogradeSolver}.
+ */
+public final class ArrayTablebase implements Tablebase {
+
+    private final long[] values;
+    private final byte[] distances;
+
+    ArrayTablebase(long[] values, byte[] distances) {
+        if (values.length != Tablebase.wordsFor(CanonicalIndex.SIZE) || distances.length != CanonicalIndex.SIZE) {
+            throw new IllegalArgumentException();
+        }
+        this.values = values;
+        this.distances = distances;
+    }
+
+    long[] getValues() {
+        return values;
+    }
+
+    byte[] getDistances() {
+        return distances;
+    }
+
+    @Override
+    public int getValue(int index) {
+        return Tablebase.value(values, index);
+    }
+
+    @Override
+    public int getDistance(int index) {
+        return distances[index] & 0xFF;
+    }
+
+}
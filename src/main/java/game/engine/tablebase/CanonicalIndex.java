@@ -0,0 +1,81 @@
+package game.engine.tablebase;
+
+import game.engine.BoardState;
+import game.engine.Symmetry;
+
+import java.util.Arrays;
+
+/**
+ * Index over one representative per symmetry class of four-against-four
+ * positions. Blue-to-move positions are colour-swapped to red-to-move, and
+ * the red cells are mapped to the smallest of their mirror images, so the
+ * table is about eight times smaller than {@link PositionIndex}. When the
+ * red cells are themselves symmetric a class may keep more than one entry;
+ * those entries hold the same result.
+ */
+public final class CanonicalIndex {
+
+    private static final int[] TRANSFORMS = new int[PositionIndex.RED_SETS];
+    private static final int[] CLASSES = new int[PositionIndex.RED_SETS];
+    private static final int[] REPRESENTATIVES;
+
+    public static final int SIZE;
+
+    static {
+        var classOfImage = new int[PositionIndex.RED_SETS];
+        Arrays.fill(classOfImage, -1);
+        var representatives = new int[PositionIndex.RED_SETS];
+        int classes = 0;
+        for (int rank = 0; rank < PositionIndex.RED_SETS; rank++) {
+            int red = PositionIndex.redMask(rank);
+            int best = 0;
+            int image = red;
+            for (int transform = 1; transform < Symmetry.GEOMETRIC; transform++) {
+                int mapped = Symmetry.mapMask(transform, red);
+                if (mapped < image) {
+                    image = mapped;
+                    best = transform;
+                }
+            }
+            int imageRank = PositionIndex.rank(image);
+            if (classOfImage[imageRank] < 0) {
+                representatives[classes] = image;
+                classOfImage[imageRank] = classes++;
+            }
+            TRANSFORMS[rank] = best;
+            CLASSES[rank] = classOfImage[imageRank];
+        }
+        REPRESENTATIVES = Arrays.copyOf(representatives, classes);
+        SIZE = classes * PositionIndex.BLUE_SETS;
+    }
+
+    private CanonicalIndex() {
+    }
+
+    public static int indexOf(BoardState state) {
+        return indexOf(state.getMask(BoardState.RED), state.getMask(BoardState.BLUE), state.getSideToMove());
+    }
+
+    public static int indexOf(int red, int blue, int side) {
+        if (side == BoardState.BLUE) {
+            int swap = red;
+            red = blue;
+            blue = swap;
+        }
+        int rank = PositionIndex.rank(red);
+        int representative = REPRESENTATIVES[CLASSES[rank]];
+        int mappedBlue = Symmetry.mapMask(TRANSFORMS[rank], blue);
+        return CLASSES[rank] * PositionIndex.BLUE_SETS + PositionIndex.rankAmongFree(mappedBlue, representative);
+    }
+
+    /**
+     * The {@link PositionIndex} of the red-to-move position stored at the
+     * given canonical index.
+     */
+    public static int toPositionIndex(int index) {
+        int red = REPRESENTATIVES[index / PositionIndex.BLUE_SETS];
+        int blue = PositionIndex.blueOf(index % PositionIndex.BLUE_SETS, red);
+        return PositionIndex.indexOf(red, blue, BoardState.RED);
+    }
+
+}
@@ -0,0 +1,113 @@
+package game.engine.tablebase;
+
+import game.engine.BoardState;
+
+/**
+ * Combinatorial ranking of positions with four red and four blue pieces:
+ * the red cells are ranked among all cells, the blue cells among the cells
+ * left free by red, and the side to move selects one of two halves.
+ */
+public final class PositionIndex {
+
+    public static final int PIECES = 4;
+
+    public static final int RED_SETS = binomial(BoardState.CELLS, PIECES);
+    public static final int BLUE_SETS = binomial(BoardState.CELLS - PIECES, PIECES);
+    public static final int SIZE = 2 * RED_SETS * BLUE_SETS;
+
+    private static final int FULL = (1 << BoardState.CELLS) - 1;
+
+    private static final int[][] BINOMIAL = createBinomials();
+    private static final int[] RED_MASKS = createSets(BoardState.CELLS);
+    private static final int[] BLUE_MASKS = createSets(BoardState.CELLS - PIECES);
+
+    private PositionIndex() {
+    }
+
+    private static int binomial(int n, int k) {
+        long result = 1;
+        for (int i = 0; i < k; i++) {
+            result = result * (n - i) / (i + 1);
+        }
+        return (int) result;
+    }
+
+    private static int[][] createBinomials() {
+        var binomials = new int[BoardState.CELLS + 1][PIECES + 1];
+        for (int n = 0; n <= BoardState.CELLS; n++) {
+            for (int k = 0; k <= PIECES; k++) {
+                binomials[n][k] = binomial(n, k);
+            }
+        }
+        return binomials;
+    }
+
+    private static int[] createSets(int cells) {
+        var sets = new int[binomial(cells, PIECES)];
+        for (int mask = 0; mask < 1 << cells; mask++) {
+            if (Integer.bitCount(mask) == PIECES) {
+                sets[rank(mask)] = mask;
+            }
+        }
+        return sets;
+    }
+
+    // Colex rank: sum of C(c_i, i + 1) over the set cells in ascending order.
+    static int rank(int mask) {
+        int rank = 0;
+        for (int i = 1; mask != 0; i++, mask &= mask - 1) {
+            rank += BINOMIAL[Integer.numberOfTrailingZeros(mask)][i];
+        }
+        return rank;
+    }
+
+    static int rankAmongFree(int mask, int occupied) {
+        int rank = 0;
+        for (int i = 1; mask != 0; i++, mask &= mask - 1) {
+            int cell = Integer.numberOfTrailingZeros(mask);
+            rank += BINOMIAL[cell - Integer.bitCount(occupied & ((1 << cell) - 1))][i];
+        }
+        return rank;
+    }
+
+    public static boolean isIndexable(BoardState state) {
+        return Integer.bitCount(state.getMask(BoardState.RED)) == PIECES
+                && Integer.bitCount(state.getMask(BoardState.BLUE)) == PIECES;
+    }
+
+    public static int indexOf(BoardState state) {
+        return indexOf(state.getMask(BoardState.RED), state.getMask(BoardState.BLUE), state.getSideToMove());
+    }
+
+    public static int indexOf(int red, int blue, int side) {
+        return (side * RED_SETS + rank(red)) * BLUE_SETS + rankAmongFree(blue, red);
+    }
+
+    public static int sideOf(int index) {
+        return index / (RED_SETS * BLUE_SETS);
+    }
+
+    public static int redOf(int index) {
+        return RED_MASKS[index / BLUE_SETS % RED_SETS];
+    }
+
+    public static int blueOf(int index) {
+        return blueOf(index % BLUE_SETS, redOf(index));
+    }
+
+    static int redMask(int redRank) {
+        return RED_MASKS[redRank];
+    }
+
+    static int blueOf(int blueRank, int red) {
+        int compressed = BLUE_MASKS[blueRank];
+        int blue = 0;
+        for (int free = ~red & FULL; compressed != 0; compressed >>>= 1, free &= free - 1) {
+            if ((compressed & 1) != 0) {
+                blue |= free & -free;
+            }
+        }
+        return blue;
+    }
+
+}
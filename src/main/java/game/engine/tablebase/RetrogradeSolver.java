@@ -0,0 +1,257 @@
+package game.engine.tablebase;
+
+import game.engine.BoardState;
+import game.engine.WinLines;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Retrograde analysis of all four-against-four positions, which covers
+ * every position reachable from the default setup.
+ *
+ * <p>Terminal positions (the previous mover made three in a row, or the side
+ * to move is stuck) are labelled first. Each following level walks the
+ * predecessors of the positions labelled in the previous one: a predecessor
+ * of a loss is a win, and a predecessor whose move counter drops to zero
+ * has only winning replies and is a loss. Whatever is left is a draw.
+ */
+public final class RetrogradeSolver {
+
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle COUNTERS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private static final int CHUNK = 1 << 16;
+
+    private final int threads;
+
+    private long[] values;
+    private byte[] distances;
+    // int rather than byte: getAndAdd on byte[] elements returns unnormalised
+    // values on some JDK 17 builds.
+    private int[] counters;
+
+    public RetrogradeSolver() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public RetrogradeSolver(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.threads = threads;
+    }
+
+    public ArrayTablebase solve() {
+        values = new long[Tablebase.wordsFor(PositionIndex.SIZE)];
+        distances = new byte[PositionIndex.SIZE];
+        counters = new int[PositionIndex.SIZE];
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.currentTimeMillis();
+            int[] frontier = run(executor, PositionIndex.SIZE, this::labelTerminals);
+            for (int distance = 0; frontier.length > 0; distance++) {
+                Logger.debug("Level {}: {} positions", distance, frontier.length);
+                int[] current = frontier;
+                int next = Math.min(distance + 1, 255);
+                frontier = run(executor, current.length, (from, to) -> expand(current, from, to, next));
+            }
+            for (int i = 0; i < values.length; i++) {
+                values[i] = markDraws(values[i], i);
+            }
+            Logger.info("Solved {} positions in {} ms", PositionIndex.SIZE, System.currentTimeMillis() - start);
+            return canonicalise();
+        } finally {
+            executor.shutdownNow();
+            values = null;
+            distances = null;
+            counters = null;
+        }
+    }
+
+    private interface Range {
+        IntList apply(int from, int to);
+    }
+
+    private static int[] run(ExecutorService executor, int size, Range range) {
+        List<Callable<IntList>> tasks = new ArrayList<>();
+        for (int from = 0; from < size; from += CHUNK) {
+            int start = from;
+            int end = Math.min(size, from + CHUNK);
+            tasks.add(() -> range.apply(start, end));
+        }
+        var result = new IntList();
+        try {
+            for (Future<IntList> future : executor.invokeAll(tasks)) {
+                result.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        return result.toArray();
+    }
+
+    private IntList labelTerminals(int from, int to) {
+        var terminals = new IntList();
+        for (int index = from; index < to; index++) {
+            int side = PositionIndex.sideOf(index);
+            int red = PositionIndex.redOf(index);
+            int blue = PositionIndex.blueOf(index);
+            int own = side == BoardState.RED ? red : blue;
+            int opponent = side == BoardState.RED ? blue : red;
+            if (WinLines.containsLine(opponent)) {
+                label(index, Tablebase.LOSS, 0);
+                terminals.add(index);
+            } else if (WinLines.containsLine(own)) {
+                label(index, Tablebase.WIN, 0);
+                terminals.add(index);
+            } else {
+                int moves = countMoves(own, ~(red | blue));
+                if (moves == 0) {
+                    label(index, Tablebase.LOSS, 0);
+                    terminals.add(index);
+                } else {
+                    counters[index] = moves;
+                }
+            }
+        }
+        return terminals;
+    }
+
+    private static int countMoves(int pieces, int free) {
+        int moves = 0;
+        for (; pieces != 0; pieces &= pieces - 1) {
+            moves += Integer.bitCount(BoardState.neighbourMask(Integer.numberOfTrailingZeros(pieces)) & free);
+        }
+        return moves;
+    }
+
+    // Predecessors are reached by moving a piece of the previous mover back
+    // to any free neighbour of its cell.
+    private IntList expand(int[] frontier, int from, int to, int distance) {
+        var labelled = new IntList();
+        for (int i = from; i < to; i++) {
+            int index = frontier[i];
+            int value = Tablebase.value(values, index);
+            int mover = PositionIndex.sideOf(index) ^ 1;
+            int red = PositionIndex.redOf(index);
+            int blue = PositionIndex.blueOf(index);
+            int pieces = mover == BoardState.RED ? red : blue;
+            int free = ~(red | blue) & ((1 << BoardState.CELLS) - 1);
+            for (int rest = pieces; rest != 0; rest &= rest - 1) {
+                int cell = Integer.numberOfTrailingZeros(rest);
+                for (int targets = BoardState.neighbourMask(cell) & free; targets != 0; targets &= targets - 1) {
+                    int moved = pieces ^ (1 << cell) ^ (targets & -targets);
+                    int previous = mover == BoardState.RED
+                            ? PositionIndex.indexOf(moved, blue, mover)
+                            : PositionIndex.indexOf(red, moved, mover);
+                    if (Tablebase.value(values, previous) != Tablebase.UNKNOWN) {
+                        continue;
+                    }
+                    if (value == Tablebase.LOSS) {
+                        if (tryLabel(previous, Tablebase.WIN, distance)) {
+                            labelled.add(previous);
+                        }
+                    } else if ((int) COUNTERS.getAndAdd(counters, previous, -1) == 1
+                            && tryLabel(previous, Tablebase.LOSS, distance)) {
+                        labelled.add(previous);
+                    }
+                }
+            }
+        }
+        return labelled;
+    }
+
+    private void label(int index, int value, int distance) {
+        distances[index] = (byte) distance;
+        values[index >>> 5] |= (long) value << ((index & 31) << 1);
+    }
+
+    private boolean tryLabel(int index, int value, int distance) {
+        int word = index >>> 5;
+        int shift = (index & 31) << 1;
+        while (true) {
+            long current = (long) VALUES.getVolatile(values, word);
+            if ((current >>> shift & 3) != Tablebase.UNKNOWN) {
+                return false;
+            }
+            if (VALUES.compareAndSet(values, word, current, current | (long) value << shift)) {
+                distances[index] = (byte) distance;
+                return true;
+            }
+        }
+    }
+
+    private ArrayTablebase canonicalise() {
+        var canonicalValues = new long[Tablebase.wordsFor(CanonicalIndex.SIZE)];
+        var canonicalDistances = new byte[CanonicalIndex.SIZE];
+        for (int index = 0; index < CanonicalIndex.SIZE; index++) {
+            int position = CanonicalIndex.toPositionIndex(index);
+            canonicalValues[index >>> 5] |= (long) Tablebase.value(values, position) << ((index & 31) << 1);
+            canonicalDistances[index] = distances[position];
+        }
+        return new ArrayTablebase(canonicalValues, canonicalDistances);
+    }
+
+    private static long markDraws(long word, int wordIndex) {
+        int positions = Math.min(32, PositionIndex.SIZE - wordIndex * 32);
+        for (int i = 0; i < positions; i++) {
+            if ((word >>> (i << 1) & 3) == Tablebase.UNKNOWN) {
+                word |= (long) Tablebase.DRAW << (i << 1);
+            }
+        }
+        return word;
+    }
+
+    static final class IntList {
+
+        private int[] items = new int[16];
+        private int size;
+
+        void add(int item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = item;
+        }
+
+        void addAll(IntList other) {
+            if (size + other.size > items.length) {
+                items = Arrays.copyOf(items, Math.max(items.length * 2, size + other.size));
+            }
+            System.arraycopy(other.items, 0, items, size, other.size);
+            size += other.size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(items, size);
+        }
+
+    }
+
+    public static void main(String[] args) throws IOException {
+        var tablebase = new RetrogradeSolver().solve();
+        var start = BoardState.createDefault();
+        int index = CanonicalIndex.indexOf(start);
+        System.out.printf("Start position: value=%d distance=%d%n",
+                tablebase.getValue(index), tablebase.getDistance(index));
+        if (args.length > 0) {
+            TablebaseFile.write(tablebase, Path.of(args[0]));
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package game.engine.tablebase;
+
+import game.engine.BoardState;
+
+/**
+ * Solved results for every four-against-four position, from the point of
+ * view of the side to move: two bits of win/loss/draw per position plus the
+ * number of plies to the result. Entries are stored per symmetry class, in
+ * {@link CanonicalIndex} order.
+ */
+public interface Tablebase {
+
+    int UNKNOWN = 0;
+    int WIN = 1;
+    int LOSS = 2;
+    int DRAW = 3;
+
+    int getValue(int index);
+
+    int getDistance(int index);
+
+    default int probe(BoardState state) {
+        return PositionIndex.isIndexable(state) ? getValue(CanonicalIndex.indexOf(state)) : UNKNOWN;
+    }
+
+    // Positions without four pieces a side are not in the table; like probe,
+    // this then answers UNKNOWN.
+    default int probeDistance(BoardState state) {
+        return PositionIndex.isIndexable(state) ? getDistance(CanonicalIndex.indexOf(state)) : UNKNOWN;
+    }
+
+    static int wordsFor(int positions) {
+        return (positions + 31) / 32;
+    }
+
+    static int value(long word, int index) {
+        return (int) (word >>> ((index & 31) << 1)) & 3;
+    }
+
+    static int value(long[] values, int index) {
+        return value(values[index >>> 5], index);
+    }
+
+}
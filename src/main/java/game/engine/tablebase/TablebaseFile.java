@@ -0,0 +1,113 @@
+package game.engine.tablebase;
+
+import game.engine.BoardState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary tablebase file, little-endian:
+ * <pre>
+ * header   magic "BG54TB\0\0", version, rows, cols, pieces per side, positions, reserved (32 bytes)
+ * values   2 bits per position, packed in 64-bit words in {@link CanonicalIndex} order
+ * distance 1 byte per position, in {@link CanonicalIndex} order
+ * </pre>
+ * Positions are the symmetry classes of {@link CanonicalIndex}, not all of
+ * {@link PositionIndex}, so a file is about 2.9 MB.
+ * Files are read through {@link FileChannel#map}, so results page in on
+ * first access and processes on one host share the same page cache.
+ */
+public final class TablebaseFile {
+
+    public static final int VERSION = 1;
+
+    private static final long MAGIC = 0x0000_4254_3435_4742L;
+    private static final int HEADER_SIZE = 32;
+
+    private TablebaseFile() {
+    }
+
+    public static void write(ArrayTablebase tablebase, Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(BoardState.ROWS)
+                    .putInt(BoardState.COLS)
+                    .putInt(PositionIndex.PIECES)
+                    .putInt(CanonicalIndex.SIZE)
+                    .putInt(0)
+                    .flip();
+            writeFully(channel, header);
+
+            long[] values = tablebase.getValues();
+            var words = ByteBuffer.allocate(values.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            words.asLongBuffer().put(values);
+            writeFully(channel, words);
+
+            writeFully(channel, ByteBuffer.wrap(tablebase.getDistances()));
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    public static Tablebase open(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int words = Tablebase.wordsFor(CanonicalIndex.SIZE);
+            long expected = HEADER_SIZE + (long) words * Long.BYTES + CanonicalIndex.SIZE;
+            if (size != expected) {
+                throw new IOException("Unexpected tablebase size " + size + ", expected " + expected);
+            }
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getLong(0) != MAGIC) {
+                throw new IOException("Not a tablebase file: " + path);
+            }
+            int version = buffer.getInt(8);
+            if (version != VERSION) {
+                throw new IOException("Unsupported tablebase version " + version);
+            }
+            if (buffer.getInt(12) != BoardState.ROWS || buffer.getInt(16) != BoardState.COLS
+                    || buffer.getInt(20) != PositionIndex.PIECES || buffer.getInt(24) != CanonicalIndex.SIZE) {
+                throw new IOException("Tablebase was built for a different board: " + path);
+            }
+            return new Mapped(buffer, HEADER_SIZE, HEADER_SIZE + words * Long.BYTES);
+        }
+    }
+
+    private static final class Mapped implements Tablebase {
+
+        private final MappedByteBuffer buffer;
+        private final int valuesOffset;
+        private final int distancesOffset;
+
+        Mapped(MappedByteBuffer buffer, int valuesOffset, int distancesOffset) {
+            this.buffer = buffer;
+            this.valuesOffset = valuesOffset;
+            this.distancesOffset = distancesOffset;
+        }
+
+        @Override
+        public int getValue(int index) {
+            return Tablebase.value(buffer.getLong(valuesOffset + (index >>> 5) * Long.BYTES), index);
+        }
+
+        @Override
+        public int getDistance(int index) {
+            return buffer.get(distancesOffset + index) & 0xFF;
+        }
+
+    }
+
+}
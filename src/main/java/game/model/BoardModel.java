@@ -1,39 +1,92 @@
 package game.model;
 
+import game.engine.Board;
+import game.engine.BoardSnapshot;
+import game.engine.BoardState;
+import game.engine.DrawRules;
+import game.engine.GameStatus;
+import game.engine.Moves;
+import game.engine.Rules;
 import javafx.beans.property.ObjectProperty;
-import javafx.scene.paint.Color;
+import javafx.beans.property.ReadOnlyObjectProperty;
 
 import java.util.*;
 
+/**
+ * Observable adapter over a headless {@link Board}: the engine does the
+ * work, the {@link Circle} properties only mirror piece positions for the UI.
+ * The model is mutated on one thread, normally the FX thread; other threads
+ * read it through {@link #getSnapshot()}, which is replaced atomically after
+ * every change.
+ */
 public class BoardModel {
 
-    public static int TABLA_MERET_X = 5;
-    public static int TABLA_MERET_Y = 4;
-
     private final Circle[] circles;
 
+    private final Board state;
+
+    // Interned position of every cell, indexed by cell.
+    private final Position[] cellPositions;
+
+    private volatile BoardSnapshot snapshot;
+
+    private DrawRules drawRules = DrawRules.DEFAULT;
+
+    private int[] statusBuffer;
+
     public BoardModel() {
-        this(new Circle(CircleType.BLUE,new Position(0,0)),
-                new Circle(CircleType.RED,new Position(0,1)),
-                new Circle(CircleType.BLUE,new Position(0,2)),
-                new Circle(CircleType.RED,new Position(0,3)),
+        this(BoardState.createDefault());
+    }
 
-                new Circle(CircleType.RED,new Position(4,0)),
-                new Circle(CircleType.BLUE,new Position(4,1)),
-                new Circle(CircleType.RED,new Position(4,2)),
-                new Circle(CircleType.BLUE,new Position(4,3))
-                );
+    public BoardModel(Rules rules) {
+        this(rules.createBoard());
     }
 
+    // Pieces given this way are placed on the classic board.
     public BoardModel(Circle... circles) {
         checkCircle(circles);
         this.circles =circles.clone();
+        this.state = createState(this.circles);
+        this.cellPositions = createCellPositions(state);
+        this.snapshot = BoardSnapshot.of(state);
+    }
+
+    public BoardModel(Board state) {
+        this.state = state;
+        this.cellPositions = createCellPositions(state);
+        this.snapshot = BoardSnapshot.of(state);
+        this.circles = new Circle[state.getPieceCount()];
+        for(int i = 0; i < circles.length; i++){
+            circles[i] = new Circle(state.getPieceType(i), toPosition(state.getPieceCell(i)));
+        }
+    }
+
+    private static Position[] createCellPositions(Board state){
+        var positions = new Position[state.getRows() * state.getCols()];
+        for(int cell = 0; cell < positions.length; cell++){
+            positions[cell] = Position.ofCell(cell, state.getCols());
+        }
+        return positions;
     }
 
-    private void checkCircle(Circle[] circles){
+    private static BoardState createState(Circle[] circles){
+        var types = new CircleType[circles.length];
+        var cells = new int[circles.length];
+        for(int i = 0; i < circles.length; i++){
+            types[i] = circles[i].getType();
+            cells[i] = circles[i].getPosition().toCell(BoardState.COLS);
+        }
+        return new BoardState(types, cells);
+    }
+
+    private int cellOf(Position position){
+        return position.toCell(state.getCols());
+    }
+
+    private static void checkCircle(Circle[] circles){
         var circlePos = new HashSet<Position>();
         for(var circle: circles){
-            if(! isOnBoard(circle.getPosition()) || circlePos.contains(circle.getPosition())){
+            if(! BoardState.isOnBoard(circle.getPosition().x(), circle.getPosition().y()) || circlePos.contains(circle.getPosition())){
                 throw new IllegalArgumentException();
             }
             circlePos.add(circle.getPosition());
@@ -52,7 +105,7 @@ public class BoardModel {
         return circles[circleNumber].getPosition();
     }
 
-    public ObjectProperty<Position> positionProperty(int circleNumber) {
+    public ReadOnlyObjectProperty<Position> positionProperty(int circleNumber) {
         return circles[circleNumber].positionProperty();
     }
 
@@ -60,16 +113,7 @@ public class BoardModel {
         if (circleNumber < 0 || circleNumber >= circles.length) {
             throw new IllegalArgumentException();
         }
-        Position newPosition = circles[circleNumber].getPosition().moveTo(direction);
-        if (! isOnBoard(newPosition)) {
-            return false;
-        }
-        for (var piece : circles) {
-            if (piece.getPosition().equals(newPosition)) {
-                return false;
-            }
-        }
-        return true;
+        return state.isValidMove(circleNumber, direction);
     }
 
     public Set<CircleDirection> getValidMoves(int pieceNumber) {
@@ -83,12 +127,120 @@ public class BoardModel {
     }
 
     public void move(int circleNumber, CircleDirection direction) {
-        circles[circleNumber].moveTo(direction);
+        if (!isValidMove(circleNumber, direction)) {
+            throw new IllegalArgumentException("Illegal move: " + circleNumber + " " + direction);
+        }
+        makeMove(Moves.encode(circleNumber, state.getPieceCell(circleNumber),
+                state.getNeighbour(state.getPieceCell(circleNumber), direction)));
+    }
+
+    public void makeMove(int move) {
+        state.makeMove(move);
+        publish(Moves.piece(move));
     }
 
-    public static boolean isOnBoard(Position position) {
-        return 0 <= position.x() && position.x() < TABLA_MERET_X
-                && 0 <= position.y() && position.y() < TABLA_MERET_Y;
+    public int generateMoves(int[] buffer) {
+        return state.generateMoves(buffer);
+    }
+
+    public int getMaxMoves() {
+        return state.getMaxMoves();
+    }
+
+    public Position toPosition(int cell) {
+        return cellPositions[cell];
+    }
+
+    public int getRows() {
+        return state.getRows();
+    }
+
+    public int getCols() {
+        return state.getCols();
+    }
+
+    public boolean hasThreeInARow(CircleType type) {
+        return state.hasLine(type.ordinal());
+    }
+
+    public Optional<CircleType> winner() {
+        int winner = state.winner();
+        return winner == BoardState.EMPTY ? Optional.empty() : Optional.of(CircleType.values()[winner]);
+    }
+
+    public DrawRules getDrawRules() {
+        return drawRules;
+    }
+
+    public void setDrawRules(DrawRules drawRules) {
+        this.drawRules = drawRules;
+    }
+
+    public GameStatus getStatus() {
+        if (statusBuffer == null) {
+            statusBuffer = new int[state.getMaxMoves()];
+        }
+        return GameStatus.of(state, drawRules, statusBuffer);
+    }
+
+    public boolean canUndo() {
+        return state.canUndo();
+    }
+
+    public boolean canRedo() {
+        return state.canRedo();
+    }
+
+    public void undo() {
+        int move = state.getLastMove();
+        state.unmakeMove();
+        publish(Moves.piece(move));
+    }
+
+    public void redo() {
+        publish(Moves.piece(state.redoMove()));
+    }
+
+    // The snapshot goes first, so listeners of the position see it too.
+    private void publish(int circleNumber) {
+        snapshot = snapshot.next(state);
+        circles[circleNumber].positionProperty().set(toPosition(state.getPieceCell(circleNumber)));
+    }
+
+    /**
+     * The current position, safe to read from any thread.
+     */
+    public BoardSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public long getHash() {
+        return state.getHash();
+    }
+
+    public Board getBoard() {
+        return state;
+    }
+
+    public boolean isClassicBoard() {
+        return state instanceof BoardState;
+    }
+
+    /**
+     * The classic board the search and tablebase work on.
+     *
+     * @throws IllegalStateException if another variant is being played
+     */
+    public BoardState getState() {
+        if (! (state instanceof BoardState classic)) {
+            throw new IllegalStateException("Not the classic board");
+        }
+        return classic;
+    }
+
+    public boolean isOnBoard(Position position) {
+        return 0 <= position.x() && position.x() < state.getRows()
+                && 0 <= position.y() && position.y() < state.getCols();
     }
 
     public List<Position> getCirclePositions() {
@@ -100,12 +252,11 @@ public class BoardModel {
     }
 
     public OptionalInt getCircleNumber(Position position) {
-        for (int i = 0; i < circles.length; i++) {
-            if (circles[i].getPosition().equals(position)) {
-                return OptionalInt.of(i);
-            }
+        if (! isOnBoard(position)) {
+            return OptionalInt.empty();
         }
-        return OptionalInt.empty();
+        int piece = state.getPieceAt(cellOf(position));
+        return piece == BoardState.EMPTY ? OptionalInt.empty() : OptionalInt.of(piece);
     }
 
     public String getCircleColor(int circlesNumber){
@@ -1,16 +1,60 @@
 package game.model;
 
-import java.util.Objects;
-
+/**
+ * Immutable board coordinates. Instances are interned: {@link #of} returns
+ * the same object for the same coordinates on any board up to
+ * {@value #CACHED_SIZE} x {@value #CACHED_SIZE}, including the ring of
+ * off-board neighbours, so equal positions are usually identical.
+ */
 public class Position {
+
+    public static final int CACHED_SIZE = 16;
+
+    private static final int CACHED_MIN = -1;
+    private static final int CACHED_SPAN = CACHED_SIZE + 2;
+
+    private static final Position[] CACHE = createCache();
+
     private final int x;
     private final int y;
 
+    /**
+     * @deprecated Use {@link #of}, which returns the interned instance.
+     */
+    @Deprecated
     public Position(int x, int y) {
         this.x = x;
         this.y = y;
     }
 
+    private static Position[] createCache() {
+        var cache = new Position[CACHED_SPAN * CACHED_SPAN];
+        for (int i = 0; i < cache.length; i++) {
+            cache[i] = new Position(i / CACHED_SPAN + CACHED_MIN, i % CACHED_SPAN + CACHED_MIN);
+        }
+        return cache;
+    }
+
+    public static Position of(int x, int y) {
+        int i = x - CACHED_MIN;
+        int j = y - CACHED_MIN;
+        if (i >= 0 && i < CACHED_SPAN && j >= 0 && j < CACHED_SPAN) {
+            return CACHE[i * CACHED_SPAN + j];
+        }
+        return new Position(x, y);
+    }
+
+    /**
+     * The position of cell {@code x * cols + y}.
+     */
+    public static Position ofCell(int cell, int cols) {
+        return of(cell / cols, cell % cols);
+    }
+
+    public int toCell(int cols) {
+        return x * cols + y;
+    }
+
     public int x() {
         return x;
     }
@@ -30,7 +74,7 @@ public class Position {
 
     @Override
     public int hashCode() {
-        return Objects.hash(x, y);
+        return 31 * x + y;
     }
 
 
@@ -41,7 +85,7 @@ public class Position {
     }
 
     public Position moveTo(Direction direction) {
-        return new Position(x + direction.getRowChange(), y + direction.getColChange());
+        return of(x + direction.getRowChange(), y + direction.getColChange());
     }
 
     public String toString() {